@@ -0,0 +1,33 @@
+package com.mathcatcher.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Runs the benchmarks with the GC profiler attached, so every result comes with
+ * ns/op plus allocation rate (gc.alloc.rate, gc.alloc.rate.norm) and GC counts.
+ *
+ * Pass a regex to run a subset, e.g. "Simulation" or "ScoreManager.getAllScores".
+ */
+public class BenchmarkMain {
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : "com.mathcatcher.bench.*";
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .jvmArgsAppend("-Djava.awt.headless=true")
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,27 @@
+package com.mathcatcher.bench;
+
+import com.mathcatcher.game.DifficultySelect;
+import com.mathcatcher.utils.MathEquation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of generating a new equation, which happens after every correct catch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EquationBenchmark {
+
+    @Param({"EASY", "MEDIUM", "HARD"})
+    public DifficultySelect.Difficulty difficulty;
+
+    @Param({"1", "10"})
+    public int level;
+
+    @Benchmark
+    public MathEquation newEquation() {
+        return new MathEquation(level, difficulty);
+    }
+}
@@ -0,0 +1,57 @@
+package com.mathcatcher.bench;
+
+import com.mathcatcher.entities.FallingNumber;
+import com.mathcatcher.entities.Player;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-sprite draw cost into an off-screen BufferedImage, with the same
+ * antialiasing setting GamePanel uses. Runs headless.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RenderBenchmark {
+    private BufferedImage image;
+    private Graphics2D g2d;
+    private Player player;
+    private int value;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        System.setProperty("java.awt.headless", "true");
+        image = new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB);
+        g2d = image.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        player = new Player(375, 520);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        g2d.dispose();
+    }
+
+    @Benchmark
+    public void fallingNumberDraw() {
+        // Cycle through one- and two-digit values like the spawner produces
+        value = value % 50 + 1;
+        FallingNumber.draw(g2d, 200, 300, value);
+    }
+
+    // The same bubble painted from scratch, as every frame did before the sprite cache
+    @Benchmark
+    public void fallingNumberDrawBubble() {
+        value = value % 50 + 1;
+        FallingNumber.drawBubble(g2d, 200, 300, value);
+    }
+
+    @Benchmark
+    public void playerDraw() {
+        player.draw(g2d);
+    }
+}
@@ -0,0 +1,61 @@
+package com.mathcatcher.bench;
+
+import com.mathcatcher.game.DifficultySelect;
+import com.mathcatcher.utils.ScoreLog;
+import com.mathcatcher.utils.ScoreManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leaderboard reads over score histories of different sizes.
+ *
+ * ScoreManager loads its file once per JVM, and JMH runs every historySize in
+ * its own fork, so the setup writes a history file and points ScoreManager at
+ * it before the class is first touched. The file is a current score log, so
+ * no legacy migration runs in the background while measuring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ScoreManagerBenchmark {
+
+    @Param({"10", "10000", "1000000"})
+    public int historySize;
+
+    private File scoreFile;
+
+    @Setup(Level.Trial)
+    public void writeHistory() throws IOException {
+        scoreFile = File.createTempFile("mathcatcher-bench-scores", ".dat");
+        scoreFile.deleteOnExit();
+
+        Random rand = new Random(42);
+        DifficultySelect.Difficulty[] difficulties = DifficultySelect.Difficulty.values();
+        List<ScoreManager.ScoreEntry> history = new ArrayList<>(historySize);
+        for (int i = 0; i < historySize; i++) {
+            history.add(new ScoreManager.ScoreEntry(rand.nextInt(100) * 10,
+                    difficulties[rand.nextInt(difficulties.length)]));
+        }
+        new ScoreLog(scoreFile).rewrite(history);
+
+        System.setProperty("mathcatcher.scoreFile", scoreFile.getAbsolutePath());
+        // Trigger the load now so it is not measured
+        ScoreManager.getAllScores();
+    }
+
+    @Benchmark
+    public List<ScoreManager.ScoreEntry> getLeaderboard() {
+        return ScoreManager.getLeaderboard(DifficultySelect.Difficulty.HARD);
+    }
+
+    @Benchmark
+    public List<ScoreManager.ScoreEntry> getAllScores() {
+        return ScoreManager.getAllScores();
+    }
+}
@@ -0,0 +1,67 @@
+package com.mathcatcher.bench;
+
+import com.mathcatcher.game.DifficultySelect;
+import com.mathcatcher.game.GameLoop;
+import com.mathcatcher.game.GameSimulation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one game tick (what GamePanel.update used to do) with a given number
+ * of falling numbers on screen. Each invocation simulates one second of play
+ * on a 1920x1080 board; numbers start in the upper half so none of them reach
+ * the catcher within that second and the count stays put.
+ *
+ * The simulation and the spawn positions are made once per trial. Before each
+ * invocation the simulation is reset and the same numbers dropped in again,
+ * which reuses the store's arrays, so setup neither allocates nor dominates
+ * the measured second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SimulationBenchmark {
+    private static final int WIDTH = 1920;
+    private static final int HEIGHT = 1080;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int entityCount;
+
+    private GameSimulation simulation;
+    private int[] spawnX;
+    private int[] spawnY;
+    private int[] spawnValue;
+
+    @Setup(Level.Trial)
+    public void createSimulation() {
+        simulation = new GameSimulation(DifficultySelect.Difficulty.HARD, WIDTH, HEIGHT, new Random(42));
+        Random rand = new Random(42);
+        spawnX = new int[entityCount];
+        spawnY = new int[entityCount];
+        spawnValue = new int[entityCount];
+        for (int i = 0; i < entityCount; i++) {
+            spawnX[i] = rand.nextInt(WIDTH - 50);
+            spawnY[i] = rand.nextInt(HEIGHT / 2);
+            spawnValue[i] = rand.nextInt(50) + 1;
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void populate() {
+        simulation.reset();
+        for (int i = 0; i < entityCount; i++) {
+            simulation.spawnNumber(spawnX[i], spawnY[i], spawnValue[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GameLoop.TICKS_PER_SECOND)
+    public GameSimulation tick() {
+        for (int i = 0; i < GameLoop.TICKS_PER_SECOND; i++) {
+            simulation.tick();
+        }
+        return simulation;
+    }
+}
@@ -1,14 +1,28 @@
 package com.mathcatcher;
 
 import com.mathcatcher.game.GameWindow;
+import com.mathcatcher.utils.GraphicsSettings;
+import com.mathcatcher.utils.ScoreManager;
 import com.mathcatcher.utils.SoundManager;
 import javax.swing.SwingUtilities;
 
 public class Main {
     public static void main(String[] args) {
+        // Runs the game in a child JVM on the fastest Java2D pipeline, unless this is that JVM
+        int exitCode = PipelineLauncher.launch(args);
+        if (exitCode >= 0) {
+            System.exit(exitCode);
+        }
+
         // Initialize sound system
         SoundManager.init();
 
+        // Picks the graphics quality tier on first start (short benchmark), before any window shows
+        GraphicsSettings.getQualityTier();
+
+        // Read the score history now rather than on the event thread at the first game over
+        ScoreManager.init();
+
         SwingUtilities.invokeLater(() -> {
             new GameWindow();
         });
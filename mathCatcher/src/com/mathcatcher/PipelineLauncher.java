@@ -0,0 +1,190 @@
+package com.mathcatcher;
+
+import com.mathcatcher.render.PipelineProbe;
+import com.mathcatcher.render.PipelineProbe.Pipeline;
+
+import java.awt.GraphicsEnvironment;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Launcher stage that runs the game on the fastest Java2D pipeline.
+ *
+ * The pipeline is fixed when the JVM starts, so Main asks this class first:
+ * it looks up (or probes, see PipelineProbe) the best pipeline for this
+ * machine and runs the game in a child JVM with the matching sun.java2d
+ * properties. If the game dies on a hardware pipeline right after starting,
+ * that pipeline is forgotten and the game is started again on the software
+ * loops. The child gets this JVM's options (heap size, agents, -D flags).
+ *
+ * -Dmathcatcher.pipeline=off skips all of this; =software, =opengl, ... forces
+ * a pipeline. Setting any sun.java2d property by hand also skips probing.
+ */
+public class PipelineLauncher {
+    // Set on the relaunched JVM so it does not relaunch again
+    private static final String CHILD_PROPERTY = "mathcatcher.pipeline.child";
+    private static final String PIPELINE_PROPERTY = "mathcatcher.pipeline";
+    private static final String MAIN_CLASS = "com.mathcatcher.Main";
+    private static final String PROBE_CLASS = "com.mathcatcher.render.PipelineProbe";
+    private static final String MODULE = "mathCatcher";
+    // A hardware pipeline that fails does so while the window comes up; later exits are the game's own
+    private static final long STARTUP_WINDOW_MILLIS = 20_000;
+
+    /**
+     * Run the game in a child JVM on the chosen pipeline if that is needed and
+     * possible. Returns the child's exit code, or -1 if the game should just
+     * start in this JVM.
+     */
+    public static int launch(String[] args) {
+        if (Boolean.getBoolean(CHILD_PROPERTY) || GraphicsEnvironment.isHeadless() || hasJava2DProperties()) {
+            return -1;
+        }
+        String requested = System.getProperty(PIPELINE_PROPERTY, "auto").trim().toLowerCase();
+        if (requested.equals("off")) {
+            return -1;
+        }
+
+        List<String> launchPrefix = getLaunchPrefix();
+        if (launchPrefix == null) {
+            return -1;
+        }
+
+        Pipeline pipeline;
+        if (requested.equals("auto")) {
+            pipeline = PipelineProbe.getCachedPipeline();
+            if (pipeline == null) {
+                pipeline = PipelineProbe.probe(launchPrefix, getMainTarget(PROBE_CLASS));
+                PipelineProbe.saveCachedPipeline(pipeline);
+            }
+        } else {
+            try {
+                pipeline = Pipeline.valueOf(requested.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.err.println("Unknown pipeline '" + requested + "', probing instead");
+                pipeline = PipelineProbe.probe(launchPrefix, getMainTarget(PROBE_CLASS));
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        int exitCode = runGame(launchPrefix, pipeline, args);
+        if (exitCode < 0) {
+            // Could not start a JVM at all; play in this one on the default pipeline
+            return -1;
+        }
+        boolean failedAtStartup = System.currentTimeMillis() - start < STARTUP_WINDOW_MILLIS;
+        if (exitCode != 0 && failedAtStartup && pipeline != Pipeline.SOFTWARE
+                && Pipeline.candidates().contains(Pipeline.SOFTWARE)) {
+            // Crashed or failed to start on the hardware pipeline: never pick it again here
+            System.err.println("Game exited with code " + exitCode + " right after starting on the " + pipeline
+                    + " pipeline, restarting on the software pipeline");
+            PipelineProbe.saveCachedPipeline(Pipeline.SOFTWARE);
+            exitCode = runGame(launchPrefix, Pipeline.SOFTWARE, args);
+            if (exitCode < 0) {
+                return -1;
+            }
+        }
+        return exitCode;
+    }
+
+    // Exit code of the game run in a child JVM, or -1 if it could not be started
+    private static int runGame(List<String> launchPrefix, Pipeline pipeline, String[] args) {
+        List<String> command = new ArrayList<>();
+        command.add(launchPrefix.get(0));
+        command.addAll(pipeline.getJvmOptions());
+        command.add("-D" + CHILD_PROPERTY + "=true");
+        command.addAll(getForwardedJvmOptions());
+        command.addAll(launchPrefix.subList(1, launchPrefix.size()));
+        command.add(getMainTarget(MAIN_CLASS));
+        for (String arg : args) {
+            command.add(arg);
+        }
+
+        try {
+            ProcessBuilder builder = new ProcessBuilder(command).inheritIO();
+            // Their options are among the forwarded ones already; the child must not pick them up twice
+            Map<String, String> environment = builder.environment();
+            environment.remove("JDK_JAVA_OPTIONS");
+            environment.remove("JAVA_TOOL_OPTIONS");
+            Process process = builder.start();
+            return process.waitFor();
+        } catch (IOException e) {
+            System.err.println("Error starting game JVM: " + e.getMessage());
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    /**
+     * This JVM's own options (heap size, -ea, agents, -D flags, ...) for the
+     * child, minus the ones the launcher sets itself: the pipeline choice and
+     * the module settings. A debugger agent is left out too, since this JVM
+     * holds its port.
+     */
+    private static List<String> getForwardedJvmOptions() {
+        List<String> options = new ArrayList<>();
+        for (String option : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (option.startsWith("-D" + PIPELINE_PROPERTY + "=") || option.startsWith("--module-path")
+                    || option.startsWith("-Djdk.module.")
+                    || option.startsWith("-agentlib:jdwp") || option.startsWith("-Xrunjdwp")) {
+                continue;
+            }
+            options.add(option);
+        }
+        return options;
+    }
+
+    /**
+     * The java executable followed by the options that find our classes; the
+     * main class (see getMainTarget) goes last. Null if this JVM's layout is
+     * not understood (e.g. a custom runtime image), in which case we do not
+     * relaunch.
+     */
+    private static List<String> getLaunchPrefix() {
+        File java = new File(new File(System.getProperty("java.home"), "bin"),
+                System.getProperty("os.name", "").toLowerCase().startsWith("windows") ? "java.exe" : "java");
+        if (!java.canExecute()) {
+            return null;
+        }
+
+        List<String> prefix = new ArrayList<>();
+        prefix.add(java.getPath());
+        if (isModular()) {
+            prefix.add("--module-path");
+            prefix.add(System.getProperty("jdk.module.path"));
+            prefix.add("-m");
+            return prefix;
+        }
+        String classPath = System.getProperty("java.class.path");
+        if (classPath == null || classPath.isEmpty()) {
+            return null;
+        }
+        prefix.add("-cp");
+        prefix.add(classPath);
+        return prefix;
+    }
+
+    // What follows the launch prefix to start className: "module/class" with -m, the class name with -cp
+    private static String getMainTarget(String className) {
+        return isModular() ? MODULE + "/" + className : className;
+    }
+
+    private static boolean isModular() {
+        String modulePath = System.getProperty("jdk.module.path");
+        return PipelineLauncher.class.getModule().isNamed() && modulePath != null && !modulePath.isEmpty();
+    }
+
+    private static boolean hasJava2DProperties() {
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith("sun.java2d.")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
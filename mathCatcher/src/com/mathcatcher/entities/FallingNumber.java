@@ -1,88 +1,80 @@
 package com.mathcatcher.entities;
 
-import com.mathcatcher.game.DifficultySelect;
+import com.mathcatcher.render.NumberSpriteCache;
+import com.mathcatcher.render.QualityTier;
+import com.mathcatcher.render.Theme;
 import java.awt.*;
 
+// Draws number bubbles; the falling numbers themselves live in a FallingNumberStore
 public class FallingNumber {
-    private int x, y;
-    private int value;
-    private double velocity;
-    private boolean caught;
-    private static final int SIZE = 45;
+    public static final int SIZE = 45;
 
-    public FallingNumber(int x, int y, int value, int level) {
-        this(x, y, value, level, DifficultySelect.Difficulty.MEDIUM);
+    // Draw a number bubble at (x, y); GamePanel uses this for the numbers in a FallingNumberStore
+    public static void draw(Graphics2D g2d, int x, int y, int value) {
+        NumberSpriteCache.getShared().draw(g2d, x, y, value);
     }
 
-    public FallingNumber(int x, int y, int value, int level, DifficultySelect.Difficulty difficulty) {
-        this.x = x;
-        this.y = y;
-        this.value = value;
-        
-        // Base velocity based on difficulty
-        double baseSpeed;
-        switch (difficulty) {
-            case EASY:
-                baseSpeed = 1.5; // Slower
-                break;
-            case MEDIUM:
-                baseSpeed = 2.0;
-                break;
-            case HARD:
-                baseSpeed = 3.0; // Faster
-                break;
-            default:
-                baseSpeed = 2.0;
-        }
-        this.velocity = baseSpeed + (level * 0.5);
-        this.caught = false;
-    }
-
-    public void update() {
-        y += velocity;
-    }
-
-    public void draw(Graphics2D g2d) {
+    // Paint the bubble from scratch; NumberSpriteCache rasterizes sprites with this
+    public static void drawBubble(Graphics2D g2d, int x, int y, int value) {
         // Shadow
-        g2d.setColor(new Color(0, 0, 0, 50));
-        g2d.fillOval(x + 3, y + 3, SIZE, SIZE);
+        if (QualityTier.current().isShadows()) {
+            setShadowStyle(g2d);
+            drawShadow(g2d, x, y);
+        }
 
         // Number circle
-        g2d.setColor(new Color(255, 215, 0));
-        g2d.fillOval(x, y, SIZE, SIZE);
+        setFillStyle(g2d);
+        drawFill(g2d, x, y);
 
         // Border
-        g2d.setColor(new Color(218, 165, 32));
-        g2d.setStroke(new BasicStroke(3));
-        g2d.drawOval(x, y, SIZE, SIZE);
+        setBorderStyle(g2d);
+        drawBorder(g2d, x, y);
 
         // Number text
         g2d.setColor(Color.BLACK);
-        g2d.setFont(new Font("Arial", Font.BOLD, 24));
+        Font font = getLabelFont();
         String numStr = String.valueOf(value);
-        FontMetrics fm = g2d.getFontMetrics();
+        FontMetrics fm = g2d.getFontMetrics(font);
+        // Shrink long answers (three digits, negatives) to fit inside the circle
+        if (fm.stringWidth(numStr) > LABEL_MAX_WIDTH) {
+            font = font.deriveFont(font.getSize2D() * LABEL_MAX_WIDTH / fm.stringWidth(numStr));
+            fm = g2d.getFontMetrics(font);
+        }
+        g2d.setFont(font);
         int textX = x + (SIZE - fm.stringWidth(numStr)) / 2;
         int textY = y + (SIZE + fm.getAscent()) / 2 - 2;
         g2d.drawString(numStr, textX, textY);
     }
 
-    public boolean isOffScreen(int screenHeight) {
-        return y > screenHeight;
+    // drawBubble split into passes, so FallingNumberBatch can set each style once for all numbers
+    public static final int LABEL_MAX_WIDTH = SIZE - 8;
+
+    public static void setShadowStyle(Graphics2D g2d) {
+        g2d.setColor(Theme.color(0, 0, 0, 50));
     }
 
-    public Rectangle getBounds() {
-        return new Rectangle(x, y, SIZE, SIZE);
+    public static void drawShadow(Graphics2D g2d, int x, int y) {
+        g2d.fillOval(x + 3, y + 3, SIZE, SIZE);
     }
 
-    public int getValue() {
-        return value;
+    public static void setFillStyle(Graphics2D g2d) {
+        g2d.setColor(Theme.color(255, 215, 0));
     }
 
-    public boolean isCaught() {
-        return caught;
+    public static void drawFill(Graphics2D g2d, int x, int y) {
+        g2d.fillOval(x, y, SIZE, SIZE);
+    }
+
+    public static void setBorderStyle(Graphics2D g2d) {
+        g2d.setColor(Theme.color(218, 165, 32));
+        g2d.setStroke(Theme.stroke(3));
+    }
+
+    public static void drawBorder(Graphics2D g2d, int x, int y) {
+        g2d.drawOval(x, y, SIZE, SIZE);
     }
 
-    public void setCaught(boolean caught) {
-        this.caught = caught;
+    public static Font getLabelFont() {
+        return Theme.font("Arial", Font.BOLD, 24);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,176 @@
+package com.mathcatcher.entities;
+
+import java.util.Arrays;
+
+/**
+ * All live falling numbers, kept as parallel primitive arrays (struct of
+ * arrays) instead of one object per number.
+ *
+ * Entities are addressed by index 0..size()-1. remove() moves the last entity
+ * into the freed slot, so despawning is O(1) but does not preserve order; when
+ * removing while iterating, walk the indexes from the end. The arrays only grow
+ * (by doubling), so once warmed up spawning and despawning allocate nothing.
+ * No AWT types here: the store is shared by GameSimulation and the renderer.
+ *
+ * Numbers never move sideways, so the store also buckets them into vertical
+ * columns by their x at spawn time. That is the collision broad phase: only the
+ * columns under the catcher need to be tested. A bucket holds entity indexes
+ * and is kept in sync by add() and remove(), also in O(1).
+ */
+public class FallingNumberStore {
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final int DEFAULT_COLUMN_WIDTH = 64;
+    private static final int BUCKET_CAPACITY = 8;
+
+    private int[] x;
+    private double[] y;
+    private double[] prevY; // y before the last move(), for interpolation
+    private double[] velocity;
+    private int[] value;
+    private int size;
+
+    // Column buckets
+    private final int columnWidth;
+    private final int[][] buckets; // entity indexes per column
+    private final int[] bucketSize;
+    private int[] column; // column of each entity
+    private int[] slot; // position of each entity inside its bucket
+
+    public FallingNumberStore(int worldWidth) {
+        this(worldWidth, DEFAULT_COLUMN_WIDTH, DEFAULT_CAPACITY);
+    }
+
+    public FallingNumberStore(int worldWidth, int columnWidth, int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 1);
+        x = new int[capacity];
+        y = new double[capacity];
+        prevY = new double[capacity];
+        velocity = new double[capacity];
+        value = new int[capacity];
+        column = new int[capacity];
+        slot = new int[capacity];
+
+        this.columnWidth = Math.max(columnWidth, 1);
+        int columns = Math.max((worldWidth + this.columnWidth - 1) / this.columnWidth, 1);
+        buckets = new int[columns][BUCKET_CAPACITY];
+        bucketSize = new int[columns];
+    }
+
+    // Returns the index of the new entity
+    public int add(int x, double y, int value, double velocity) {
+        if (size == this.x.length) {
+            grow();
+        }
+        int i = size++;
+        this.x[i] = x;
+        this.y[i] = y;
+        this.prevY[i] = y;
+        this.velocity[i] = velocity;
+        this.value[i] = value;
+
+        int c = columnOf(x);
+        if (bucketSize[c] == buckets[c].length) {
+            buckets[c] = Arrays.copyOf(buckets[c], buckets[c].length * 2);
+        }
+        column[i] = c;
+        slot[i] = bucketSize[c];
+        buckets[c][bucketSize[c]++] = i;
+        return i;
+    }
+
+    // Swap-remove: the last entity takes over this index
+    public void remove(int index) {
+        // Take the entity out of its bucket, the same way
+        int c = column[index];
+        int lastInBucket = buckets[c][--bucketSize[c]];
+        buckets[c][slot[index]] = lastInBucket;
+        slot[lastInBucket] = slot[index];
+
+        int last = --size;
+        if (index != last) {
+            x[index] = x[last];
+            y[index] = y[last];
+            prevY[index] = prevY[last];
+            velocity[index] = velocity[last];
+            value[index] = value[last];
+            column[index] = column[last];
+            slot[index] = slot[last];
+            buckets[column[index]][slot[index]] = index;
+        }
+    }
+
+    public void clear() {
+        size = 0;
+        Arrays.fill(bucketSize, 0);
+    }
+
+    // Advance every entity by its velocity
+    public void moveAll() {
+        for (int i = 0; i < size; i++) {
+            prevY[i] = y[i];
+            y[i] += velocity[i];
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getX(int index) {
+        return x[index];
+    }
+
+    public double getY(int index) {
+        return y[index];
+    }
+
+    // alpha blends between the previous and the current position (0 = previous, 1 = current)
+    public double getY(int index, double alpha) {
+        return prevY[index] + (y[index] - prevY[index]) * alpha;
+    }
+
+    public double getPrevY(int index) {
+        return prevY[index];
+    }
+
+    public double getVelocity(int index) {
+        return velocity[index];
+    }
+
+    public int getValue(int index) {
+        return value[index];
+    }
+
+    // Column that a number with this left edge belongs to (x outside the world is clamped)
+    public int columnOf(int x) {
+        int c = x / columnWidth;
+        return Math.max(0, Math.min(c, buckets.length - 1));
+    }
+
+    public int getColumnCount() {
+        return buckets.length;
+    }
+
+    public int getColumnSize(int column) {
+        return bucketSize[column];
+    }
+
+    /**
+     * Index of the n-th entity in a column. When removing while walking a
+     * column, go from getColumnSize(column) - 1 down to 0.
+     */
+    public int getColumnEntity(int column, int n) {
+        return buckets[column][n];
+    }
+
+    private void grow() {
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        prevY = Arrays.copyOf(prevY, capacity);
+        velocity = Arrays.copyOf(velocity, capacity);
+        value = Arrays.copyOf(value, capacity);
+        column = Arrays.copyOf(column, capacity);
+        slot = Arrays.copyOf(slot, capacity);
+    }
+}
@@ -1,11 +1,31 @@
 package com.mathcatcher.game;
 
+import com.mathcatcher.render.QualityTier;
+import com.mathcatcher.render.Theme;
+import com.mathcatcher.render.TitlePanel;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 
 public class DifficultySelect extends JPanel {
+    // Button gradients, normal and hovered
+    private static final Color BACK_FROM = new Color(100, 116, 139);
+    private static final Color BACK_TO = new Color(71, 85, 105);
+    private static final Color BACK_HOVER_FROM = new Color(71, 85, 105);
+    private static final Color BACK_HOVER_TO = new Color(51, 65, 85);
+    private static final Color EASY_FROM = new Color(34, 197, 94);
+    private static final Color EASY_TO = new Color(5, 150, 105);
+    private static final Color EASY_HOVER_FROM = new Color(22, 163, 74);
+    private static final Color EASY_HOVER_TO = new Color(5, 122, 85);
+    private static final Color MEDIUM_FROM = new Color(234, 179, 8);
+    private static final Color MEDIUM_TO = new Color(234, 88, 12);
+    private static final Color MEDIUM_HOVER_FROM = new Color(202, 138, 4);
+    private static final Color MEDIUM_HOVER_TO = new Color(194, 65, 12);
+    private static final Color HARD_FROM = new Color(239, 68, 68);
+    private static final Color HARD_TO = new Color(219, 39, 119);
+    private static final Color HARD_HOVER_FROM = new Color(220, 38, 38);
+    private static final Color HARD_HOVER_TO = new Color(190, 24, 93);
     
     public enum Difficulty {
         EASY, MEDIUM, HARD
@@ -22,20 +42,19 @@ public class DifficultySelect extends JPanel {
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
                 Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                QualityTier.current().applyHints(g2d);
 
                 // Semi-transparent black background with shadow
-                g2d.setColor(new Color(0, 0, 0, 100));
+                g2d.setColor(Theme.color(0, 0, 0, 100));
                 g2d.fillRoundRect(4, 4, getWidth(), getHeight(), 32, 32);
                 
                 // Main background
-                g2d.setColor(new Color(0, 0, 0, 76)); // ~30% opacity
+                g2d.setColor(Theme.color(0, 0, 0, 76)); // ~30% opacity
                 g2d.fillRoundRect(0, 0, getWidth(), getHeight(), 32, 32); // rounded-2xl
 
                 // Enhanced border (border-white/10)
-                g2d.setStroke(new BasicStroke(1));
-                g2d.setColor(new Color(255, 255, 255, 25));
+                g2d.setStroke(Theme.stroke(1));
+                g2d.setColor(Theme.color(255, 255, 255, 25));
                 g2d.drawRoundRect(0, 0, getWidth() - 1, getHeight() - 1, 32, 32);
             }
         };
@@ -44,64 +63,56 @@ public class DifficultySelect extends JPanel {
 
         // ===== Back Button =====
         GradientButton backButton = new GradientButton("← Back",
-            new Color(100, 116, 139), new Color(71, 85, 105), // Slate gray gradient
-            new Color(71, 85, 105), new Color(51, 65, 85)); // Darker on hover
+            BACK_FROM, BACK_TO, // Slate gray gradient
+            BACK_HOVER_FROM, BACK_HOVER_TO); // Darker on hover
         backButton.addActionListener(e -> onBack.run());
 
         // ===== Title Section =====
-        JPanel titlePanel = new JPanel() {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-
-                // Draw gradient text "Select Difficulty"
-                Font titleFont = new Font("SansSerif", Font.BOLD, 64); // Same size as main menu
-                String title = "Select Difficulty";
-                
-                // Create TextLayout for gradient text rendering
-                java.awt.font.TextLayout textLayout = new java.awt.font.TextLayout(
-                    title, titleFont, g2d.getFontRenderContext()
-                );
-                
-                FontMetrics fm = g2d.getFontMetrics(titleFont);
-                int textWidth = fm.stringWidth(title);
-                int textHeight = fm.getHeight();
-                int x = (getWidth() - textWidth) / 2;
-                int y = (getHeight() - textHeight) / 2 + fm.getAscent() - 20;
-
-                // Create gradient: yellow-400 -> pink-500 -> purple-500 (same as main menu)
-                Color yellow = new Color(255, 230, 0);    // yellow-400
-                Color pink = new Color(236, 72, 153);     // pink-500
-                Color purple = new Color(168, 85, 247);   // purple-500
-                
-                // Use LinearGradientPaint for smooth gradient
-                java.awt.LinearGradientPaint gradient = new java.awt.LinearGradientPaint(
-                    x, 0, x + textWidth, 0,
-                    new float[]{0.0f, 0.5f, 1.0f},
-                    new Color[]{yellow, pink, purple}
-                );
-                
-                // Draw text as shape with gradient fill
-                java.awt.Shape textShape = textLayout.getOutline(
-                    java.awt.geom.AffineTransform.getTranslateInstance(x, y)
-                );
-                g2d.setPaint(gradient);
-                g2d.fill(textShape);
-
-                // Draw subtitle
-                Font subtitleFont = new Font("SansSerif", Font.PLAIN, 16);
-                g2d.setFont(subtitleFont);
-                g2d.setColor(new Color(209, 213, 219)); // gray-300
-                String subtitle = "Choose your challenge level";
-                FontMetrics subFm = g2d.getFontMetrics();
-                int subX = (getWidth() - subFm.stringWidth(subtitle)) / 2;
-                int subY = y + 25;
-                g2d.drawString(subtitle, subX, subY);
-            }
-        };
+        JPanel titlePanel = new TitlePanel((g2d, width, height) -> {
+            // Draw gradient text "Select Difficulty"
+            Font titleFont = Theme.font("SansSerif", Font.BOLD, 64); // Same size as main menu
+            String title = "Select Difficulty";
+            
+            // Create TextLayout for gradient text rendering
+            java.awt.font.TextLayout textLayout = new java.awt.font.TextLayout(
+                title, titleFont, g2d.getFontRenderContext()
+            );
+            
+            FontMetrics fm = g2d.getFontMetrics(titleFont);
+            int textWidth = fm.stringWidth(title);
+            int textHeight = fm.getHeight();
+            int x = (width - textWidth) / 2;
+            int y = (height - textHeight) / 2 + fm.getAscent() - 20;
+
+            // Create gradient: yellow-400 -> pink-500 -> purple-500 (same as main menu)
+            Color yellow = Theme.color(255, 230, 0);    // yellow-400
+            Color pink = Theme.color(236, 72, 153);     // pink-500
+            Color purple = Theme.color(168, 85, 247);   // purple-500
+            
+            // Use LinearGradientPaint for smooth gradient
+            java.awt.LinearGradientPaint gradient = new java.awt.LinearGradientPaint(
+                x, 0, x + textWidth, 0,
+                new float[]{0.0f, 0.5f, 1.0f},
+                new Color[]{yellow, pink, purple}
+            );
+            
+            // Draw text as shape with gradient fill
+            java.awt.Shape textShape = textLayout.getOutline(
+                java.awt.geom.AffineTransform.getTranslateInstance(x, y)
+            );
+            g2d.setPaint(gradient);
+            g2d.fill(textShape);
+
+            // Draw subtitle
+            Font subtitleFont = Theme.font("SansSerif", Font.PLAIN, 16);
+            g2d.setFont(subtitleFont);
+            g2d.setColor(Theme.color(209, 213, 219)); // gray-300
+            String subtitle = "Choose your challenge level";
+            FontMetrics subFm = g2d.getFontMetrics();
+            int subX = (width - subFm.stringWidth(subtitle)) / 2;
+            int subY = y + 25;
+            g2d.drawString(subtitle, subX, subY);
+        });
         titlePanel.setOpaque(false);
         titlePanel.setPreferredSize(new Dimension(0, 140)); // Same height as main menu title
         titlePanel.setMinimumSize(new Dimension(0, 140));
@@ -116,8 +127,8 @@ public class DifficultySelect extends JPanel {
         DifficultyButton easyButton = new DifficultyButton(
             "⚡ Easy",
             "Addition & subtraction (1-10) | 2 min timer",
-            new Color(34, 197, 94), new Color(5, 150, 105), // green-500 to emerald-600
-            new Color(22, 163, 74), new Color(5, 122, 85)  // hover colors
+            EASY_FROM, EASY_TO, // green-500 to emerald-600
+            EASY_HOVER_FROM, EASY_HOVER_TO  // hover colors
         );
         easyButton.addActionListener(e -> onSelectDifficulty.onDifficultySelected(Difficulty.EASY));
 
@@ -125,8 +136,8 @@ public class DifficultySelect extends JPanel {
         DifficultyButton mediumButton = new DifficultyButton(
             "🔥 Medium",
             "Includes multiplication (1-20) | 1.5 min timer",
-            new Color(234, 179, 8), new Color(234, 88, 12), // yellow-500 to orange-600
-            new Color(202, 138, 4), new Color(194, 65, 12)  // hover colors
+            MEDIUM_FROM, MEDIUM_TO, // yellow-500 to orange-600
+            MEDIUM_HOVER_FROM, MEDIUM_HOVER_TO  // hover colors
         );
         mediumButton.addActionListener(e -> onSelectDifficulty.onDifficultySelected(Difficulty.MEDIUM));
 
@@ -134,8 +145,8 @@ public class DifficultySelect extends JPanel {
         DifficultyButton hardButton = new DifficultyButton(
             "☠ Hard",
             "All operations, faster speed (1-30) | 1 min timer",
-            new Color(239, 68, 68), new Color(219, 39, 119), // red-500 to pink-600
-            new Color(220, 38, 38), new Color(190, 24, 93)  // hover colors
+            HARD_FROM, HARD_TO, // red-500 to pink-600
+            HARD_HOVER_FROM, HARD_HOVER_TO  // hover colors
         );
         hardButton.addActionListener(e -> onSelectDifficulty.onDifficultySelected(Difficulty.HARD));
 
@@ -210,9 +221,8 @@ public class DifficultySelect extends JPanel {
         @Override
         protected void paintComponent(Graphics g) {
             Graphics2D g2d = (Graphics2D) g;
-            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-            g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            QualityTier tier = QualityTier.current();
+            tier.applyHints(g2d);
 
             int width = getWidth();
             int height = getHeight();
@@ -220,7 +230,7 @@ public class DifficultySelect extends JPanel {
             // Draw gradient background
             Color c1 = isHovered ? hoverColor1 : this.color1;
             Color c2 = isHovered ? hoverColor2 : this.color2;
-            GradientPaint gradient = new GradientPaint(
+            Paint gradient = tier.gradient(
                 0, 0, c1,
                 width, height, c2
             );
@@ -228,27 +238,27 @@ public class DifficultySelect extends JPanel {
             g2d.fillRoundRect(0, 0, width, height, 12, 12); // Same rounded corners as main menu
 
             // Draw shadow/glow on hover
-            if (isHovered) {
+            if (isHovered && tier.isShadows()) {
                 // Simple glow effect
                 for (int i = 1; i <= 2; i++) {
-                    g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.2f / i));
-                    g2d.setStroke(new BasicStroke(2 * i));
+                    g2d.setComposite(Theme.composite(0.2f / i));
+                    g2d.setStroke(Theme.stroke(2 * i));
                     g2d.setColor(c1);
                     g2d.drawRoundRect(i, i, width - 2 * i, height - 2 * i, 12, 12);
                 }
-                g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1.0f));
+                g2d.setComposite(Theme.composite(1.0f));
             }
 
             // Draw icon container (bg-white/20) - smaller to fit
             int iconSize = 40;
             int iconX = 20;
             int iconY = (height - iconSize) / 2;
-            g2d.setColor(new Color(255, 255, 255, 51)); // white/20
+            g2d.setColor(Theme.color(255, 255, 255, 51)); // white/20
             g2d.fillRoundRect(iconX, iconY, iconSize, iconSize, 8, 8);
 
             // Draw icon (extract emoji from name)
             String icon = name.substring(0, name.indexOf(' '));
-            Font iconFont = new Font("SansSerif", Font.PLAIN, 20); // Smaller icon
+            Font iconFont = Theme.font("SansSerif", Font.PLAIN, 20); // Smaller icon
             g2d.setFont(iconFont);
             FontMetrics iconFm = g2d.getFontMetrics();
             int iconTextX = iconX + (iconSize - iconFm.stringWidth(icon)) / 2;
@@ -261,7 +271,7 @@ public class DifficultySelect extends JPanel {
             int textY = height / 2;
 
             // Draw name
-            Font nameFont = new Font("SansSerif", Font.BOLD, 18);
+            Font nameFont = Theme.font("SansSerif", Font.BOLD, 18);
             g2d.setFont(nameFont);
             String nameText = name.substring(name.indexOf(' ') + 1);
             g2d.setColor(Color.WHITE);
@@ -269,9 +279,9 @@ public class DifficultySelect extends JPanel {
             g2d.drawString(nameText, textX, nameY);
 
             // Draw description
-            Font descFont = new Font("SansSerif", Font.PLAIN, 13);
+            Font descFont = Theme.font("SansSerif", Font.PLAIN, 13);
             g2d.setFont(descFont);
-            g2d.setColor(new Color(255, 255, 255, 204)); // white/80
+            g2d.setColor(Theme.color(255, 255, 255, 204)); // white/80
             FontMetrics descFm = g2d.getFontMetrics();
             int descY = textY + descFm.getAscent() + 4;
             g2d.drawString(description, textX, descY);
@@ -280,6 +290,7 @@ public class DifficultySelect extends JPanel {
 
     // Simple gradient button for back button
     private static class GradientButton extends JButton {
+        private static final Font FONT = new Font("SansSerif", Font.BOLD, 12);
         private Color color1, color2;
         private Color hoverColor1, hoverColor2;
         private boolean isHovered = false;
@@ -295,7 +306,7 @@ public class DifficultySelect extends JPanel {
             setContentAreaFilled(false);
             setBorderPainted(false);
             setForeground(Color.WHITE);
-            setFont(new Font("SansSerif", Font.BOLD, 12)); // Smaller font for smaller button
+            setFont(FONT); // Smaller font for smaller button
             setMargin(new Insets(0, 0, 0, 0)); // Remove default button margins
 
             addMouseListener(new MouseAdapter() {
@@ -329,9 +340,8 @@ public class DifficultySelect extends JPanel {
         @Override
         protected void paintComponent(Graphics g) {
             Graphics2D g2d = (Graphics2D) g;
-            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-            g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            QualityTier tier = QualityTier.current();
+            tier.applyHints(g2d);
 
             int width = getWidth();
             int height = getHeight();
@@ -342,7 +352,7 @@ public class DifficultySelect extends JPanel {
             if (c1.equals(c2)) {
                 g2d.setColor(c1);
             } else {
-                GradientPaint gradient = new GradientPaint(0, 0, c1, width, height, c2);
+                Paint gradient = tier.gradient(0, 0, c1, width, height, c2);
                 g2d.setPaint(gradient);
             }
             g2d.fillRoundRect(0, 0, width, height, 8, 8); // rounded-lg
@@ -0,0 +1,286 @@
+package com.mathcatcher.game;
+
+import com.mathcatcher.render.DirtyRegion;
+import com.mathcatcher.render.FrameStats;
+import com.mathcatcher.render.GlyphAtlas;
+import com.mathcatcher.render.RetainedLayer;
+import com.mathcatcher.render.Theme;
+import com.mathcatcher.utils.MathEquation;
+
+import java.awt.*;
+
+/**
+ * The in-game HUD: equation box, score and level, hearts, timer, pause button
+ * and the key help line.
+ *
+ * Each part is a RetainedLayer keyed by the values it shows, so it is only
+ * rasterized again when that value changes (a new equation, a catch, a lost
+ * life, the timer ticking over a second). Every other frame the HUD costs a
+ * handful of blits. Numbers are drawn from a GlyphAtlas, so even a repaint
+ * builds no strings. The key help line never changes; it is drawn with the
+ * background by drawStatic(). Drawn by GamePanel under its state lock.
+ */
+public class GameHud {
+    private final int width;
+    private final int height;
+
+    private final RetainedLayer equationLayer;
+    private final RetainedLayer scoreLayer;
+    private final RetainedLayer heartsLayer;
+    private final RetainedLayer timerLayer;
+    private final RetainedLayer pauseButtonLayer;
+
+    // Painters are created once; they read the state stashed in the fields below
+    private final RetainedLayer.Painter equationPainter = this::paintEquation;
+    private final RetainedLayer.Painter scorePainter = this::paintScore;
+    private final RetainedLayer.Painter heartsPainter = this::paintHearts;
+    private final RetainedLayer.Painter timerPainter = this::paintTimer;
+    private final RetainedLayer.Painter pauseButtonPainter = this::paintPauseButton;
+
+    private GameSimulation simulation;
+    private boolean paused;
+
+    public GameHud(int width, int height) {
+        this.width = width;
+        this.height = height;
+
+        // Bounds include a couple of pixels for the stroked borders
+        equationLayer = new RetainedLayer(width / 2 - 250, 18, 500, 64);
+        scoreLayer = new RetainedLayer(18, 14, 260, 64);
+        heartsLayer = new RetainedLayer(18, 98, 94, 28);
+        timerLayer = new RetainedLayer(width - 122, 73, 104, 54);
+        pauseButtonLayer = new RetainedLayer(width - 122, 18, 104, 44);
+    }
+
+    // The parts that never change during a game
+    public void drawStatic(Graphics2D g2d) {
+        paintInstructions(g2d);
+    }
+
+    public void draw(Graphics2D g2d, GameSimulation simulation, boolean paused, FrameStats stats) {
+        this.simulation = simulation;
+        this.paused = paused;
+
+        equationLayer.draw(g2d, simulation.getEquationNumber(), equationPainter);
+        scoreLayer.draw(g2d, ((long) simulation.getScore() << 32) | simulation.getLevel(), scorePainter);
+        heartsLayer.draw(g2d, simulation.getLives(), heartsPainter);
+        timerLayer.draw(g2d, simulation.getTimeRemaining(), timerPainter);
+        pauseButtonLayer.draw(g2d, paused ? 1 : 0, pauseButtonPainter);
+        stats.addDrawCalls(5); // one blit per layer
+    }
+
+    // True if draw() would show something different from the last time
+    public boolean isStale(GameSimulation simulation, boolean paused) {
+        return equationLayer.isStale(simulation.getEquationNumber())
+                || scoreLayer.isStale(((long) simulation.getScore() << 32) | simulation.getLevel())
+                || heartsLayer.isStale(simulation.getLives())
+                || timerLayer.isStale(simulation.getTimeRemaining())
+                || pauseButtonLayer.isStale(paused ? 1 : 0);
+    }
+
+    // Add the parts whose values changed since the last call to region
+    public void collectDirty(GameSimulation simulation, boolean paused, DirtyRegion region) {
+        equationLayer.addIfChanged(simulation.getEquationNumber(), region);
+        scoreLayer.addIfChanged(((long) simulation.getScore() << 32) | simulation.getLevel(), region);
+        heartsLayer.addIfChanged(simulation.getLives(), region);
+        timerLayer.addIfChanged(simulation.getTimeRemaining(), region);
+        pauseButtonLayer.addIfChanged(paused ? 1 : 0, region);
+    }
+
+    private void paintEquation(Graphics2D g2d) {
+        // Equation box
+        g2d.setColor(Theme.color(255, 255, 255, 200));
+        g2d.fillRoundRect(width / 2 - 150, 20, 300, 60, 15, 15);
+        g2d.setColor(Color.BLACK);
+        g2d.setStroke(Theme.stroke(3));
+        g2d.drawRoundRect(width / 2 - 150, 20, 300, 60, 15, 15);
+
+        // Equation text
+        GlyphAtlas atlas = GlyphAtlas.get(g2d, Theme.font("Arial", Font.BOLD, 32), Color.BLACK);
+        MathEquation equation = simulation.getCurrentEquation();
+        int textWidth = drawEquation(g2d, atlas, equation, 0, 60, false);
+        drawEquation(g2d, atlas, equation, width / 2 - textWidth / 2, 60, true);
+    }
+
+    // Lays out "a × b - c = ?" glyph by glyph; returns the width, and draws it if asked
+    private static int drawEquation(Graphics2D g2d, GlyphAtlas atlas, MathEquation equation,
+                                    int x, int y, boolean draw) {
+        int start = x;
+        x = drawNumber(g2d, atlas, equation.getNum1(), x, y, draw);
+        x = drawSymbol(g2d, atlas, equation.getSymbol(), x, y, draw);
+        x = drawNumber(g2d, atlas, equation.getNum2(), x, y, draw);
+        if (equation.isComplex()) {
+            x = drawSymbol(g2d, atlas, equation.getSymbol2(), x, y, draw);
+            x = drawNumber(g2d, atlas, equation.getNum3(), x, y, draw);
+        }
+        x = drawSymbol(g2d, atlas, '=', x, y, draw);
+        x = draw ? atlas.drawChar(g2d, '?', x, y) : x + atlas.charWidth('?');
+        return x - start;
+    }
+
+    private static int drawNumber(Graphics2D g2d, GlyphAtlas atlas, int value, int x, int y, boolean draw) {
+        return draw ? atlas.drawInt(g2d, value, x, y) : x + atlas.intWidth(value);
+    }
+
+    // A symbol with a space on both sides
+    private static int drawSymbol(Graphics2D g2d, GlyphAtlas atlas, char symbol, int x, int y, boolean draw) {
+        if (!draw) {
+            return x + 2 * atlas.charWidth(' ') + atlas.charWidth(symbol);
+        }
+        x = atlas.drawChar(g2d, ' ', x, y);
+        x = atlas.drawChar(g2d, symbol, x, y);
+        return atlas.drawChar(g2d, ' ', x, y);
+    }
+
+    private void paintScore(Graphics2D g2d) {
+        Font font = Theme.font("Arial", Font.BOLD, 24);
+        g2d.setFont(font);
+        g2d.setColor(Color.WHITE);
+        FontMetrics fm = g2d.getFontMetrics();
+        GlyphAtlas atlas = GlyphAtlas.get(g2d, font, Color.WHITE);
+
+        g2d.drawString("Score: ", 20, 40);
+        atlas.drawInt(g2d, simulation.getScore(), 20 + fm.stringWidth("Score: "), 40);
+        g2d.drawString("Level: ", 20, 70);
+        atlas.drawInt(g2d, simulation.getLevel(), 20 + fm.stringWidth("Level: "), 70);
+    }
+
+    private void paintHearts(Graphics2D g2d) {
+        int heartsRemaining = simulation.getLives();
+        int x = 20;
+        int y = 100;
+        int heartSize = 24;
+        int spacing = 30;
+
+        for (int i = 0; i < GameSimulation.MAX_LIVES; i++) {
+            int heartX = x + (i * spacing);
+
+            if (i < heartsRemaining) {
+                // Full heart (red)
+                g2d.setColor(Theme.color(255, 0, 0));
+            } else {
+                // Empty heart (gray)
+                g2d.setColor(Theme.color(100, 100, 100));
+            }
+
+            // Draw heart shape
+            paintHeart(g2d, heartX, y, heartSize);
+        }
+    }
+
+    private void paintHeart(Graphics2D g2d, int x, int y, int size) {
+        int[] xPoints = new int[6];
+        int[] yPoints = new int[6];
+
+        // Simplified heart shape using a polygon
+        int centerX = x + size / 2;
+        int centerY = y + size / 2;
+
+        xPoints[0] = centerX;
+        yPoints[0] = centerY + size / 4;
+
+        xPoints[1] = centerX - size / 3;
+        yPoints[1] = centerY - size / 6;
+
+        xPoints[2] = centerX - size / 2;
+        yPoints[2] = centerY - size / 3;
+
+        xPoints[3] = centerX;
+        yPoints[3] = centerY - size / 2;
+
+        xPoints[4] = centerX + size / 2;
+        yPoints[4] = centerY - size / 3;
+
+        xPoints[5] = centerX + size / 3;
+        yPoints[5] = centerY - size / 6;
+
+        g2d.fillPolygon(xPoints, yPoints, 6);
+
+        // Draw two circles for the top of the heart
+        int circleSize = size / 2;
+        g2d.fillOval(centerX - size / 2, centerY - size / 2, circleSize, circleSize);
+        g2d.fillOval(centerX, centerY - size / 2, circleSize, circleSize);
+    }
+
+    private void paintTimer(Graphics2D g2d) {
+        // Calculate minutes and seconds
+        int timeRemaining = simulation.getTimeRemaining();
+        int minutes = timeRemaining / 60;
+        int seconds = timeRemaining % 60;
+
+        // Position at top right (below pause button)
+        int timerX = width - 120;
+        int timerY = 75;
+        int timerWidth = 100;
+        int timerHeight = 50;
+
+        // Timer background box
+        Color timerBgColor;
+        Color timerTextColor;
+
+        // Change color based on time remaining
+        if (timeRemaining <= 10) {
+            // Red - critical time
+            timerBgColor = Theme.color(220, 38, 38, 220);
+            timerTextColor = Color.WHITE;
+        } else if (timeRemaining <= 30) {
+            // Orange - warning
+            timerBgColor = Theme.color(234, 88, 12, 220);
+            timerTextColor = Color.WHITE;
+        } else {
+            // Green/Blue - normal
+            timerBgColor = Theme.color(59, 130, 246, 220);
+            timerTextColor = Color.WHITE;
+        }
+
+        g2d.setColor(timerBgColor);
+        g2d.fillRoundRect(timerX, timerY, timerWidth, timerHeight, 10, 10);
+        g2d.setColor(Theme.color(255, 255, 255, 100));
+        g2d.setStroke(Theme.stroke(2));
+        g2d.drawRoundRect(timerX, timerY, timerWidth, timerHeight, 10, 10);
+
+        // Timer label
+        g2d.setColor(timerTextColor);
+        g2d.setFont(Theme.font("Arial", Font.BOLD, 12));
+        String label = "TIME";
+        FontMetrics labelFm = g2d.getFontMetrics();
+        int labelWidth = labelFm.stringWidth(label);
+        g2d.drawString(label, timerX + (timerWidth - labelWidth) / 2, timerY + 15);
+
+        // Timer text (m:ss)
+        GlyphAtlas atlas = GlyphAtlas.get(g2d, Theme.font("Arial", Font.BOLD, 24), timerTextColor);
+        int textWidth = atlas.intWidth(minutes) + atlas.charWidth(':') + atlas.intWidth(seconds, 2);
+        int textX = timerX + (timerWidth - textWidth) / 2;
+        textX = atlas.drawInt(g2d, minutes, textX, timerY + 38);
+        textX = atlas.drawChar(g2d, ':', textX, timerY + 38);
+        atlas.drawInt(g2d, seconds, 2, textX, timerY + 38);
+    }
+
+    private void paintPauseButton(Graphics2D g2d) {
+        int btnX = width - 120;
+        int btnY = 20;
+        int btnWidth = 100;
+        int btnHeight = 40;
+
+        // Button background
+        g2d.setColor(Theme.color(100, 116, 139, 200));
+        g2d.fillRoundRect(btnX, btnY, btnWidth, btnHeight, 8, 8);
+        g2d.setColor(Theme.color(255, 255, 255, 100));
+        g2d.setStroke(Theme.stroke(2));
+        g2d.drawRoundRect(btnX, btnY, btnWidth, btnHeight, 8, 8);
+
+        // Button text
+        g2d.setFont(Theme.font("Arial", Font.BOLD, 18));
+        g2d.setColor(Color.WHITE);
+        FontMetrics fm = g2d.getFontMetrics();
+        String text = paused ? "Resume" : "Pause";
+        int textWidth = fm.stringWidth(text);
+        g2d.drawString(text, btnX + (btnWidth - textWidth) / 2, btnY + 28);
+    }
+
+    private void paintInstructions(Graphics2D g2d) {
+        g2d.setFont(Theme.font("Arial", Font.PLAIN, 16));
+        g2d.setColor(Color.DARK_GRAY);
+        g2d.drawString("← → Arrow keys to move | P/Pause to pause | Catch the correct answer!", width / 2 - 280, height - 15);
+    }
+}
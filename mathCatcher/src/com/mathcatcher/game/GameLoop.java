@@ -0,0 +1,135 @@
+package com.mathcatcher.game;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fixed-timestep game loop running on its own thread.
+ *
+ * The simulation always advances in steps of exactly 1 / ticksPerSecond
+ * seconds of real time (TICKS_PER_SECOND by default), measured with
+ * System.nanoTime(), no matter how many frames get rendered. Whatever is left
+ * in the accumulator after the ticks is handed to the renderer as an
+ * interpolation factor between the previous and the current tick.
+ */
+public class GameLoop implements Runnable {
+    public static final int TICKS_PER_SECOND = 60;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    // Catch-up limits: never run more than this many ticks before drawing a frame,
+    // and forget about any frame gap longer than this (debugger, sleep, long GC)
+    private static final int MAX_TICKS_PER_FRAME = 5;
+    private static final long MAX_FRAME_NANOS = NANOS_PER_SECOND / 4;
+
+    public interface Listener {
+        // Advance the game by exactly one fixed step
+        void tick();
+
+        // Draw a frame; alpha (0..1) is how far we are between the last two ticks
+        void render(double alpha);
+    }
+
+    private final Listener listener;
+    private final long stepNanos;
+    private final long frameNanos;
+    private final Object pauseLock = new Object();
+    private Thread thread;
+    private volatile boolean running;
+    private volatile boolean paused;
+
+    public GameLoop(Listener listener) {
+        this(listener, TICKS_PER_SECOND);
+    }
+
+    public GameLoop(Listener listener, int framesPerSecond) {
+        this(listener, TICKS_PER_SECOND, framesPerSecond);
+    }
+
+    public GameLoop(Listener listener, int ticksPerSecond, int framesPerSecond) {
+        this.listener = listener;
+        this.stepNanos = NANOS_PER_SECOND / Math.max(ticksPerSecond, 1);
+        this.frameNanos = NANOS_PER_SECOND / Math.max(framesPerSecond, 1);
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this, "GameLoop");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        synchronized (pauseLock) {
+            pauseLock.notifyAll();
+        }
+    }
+
+    public void setPaused(boolean paused) {
+        synchronized (pauseLock) {
+            this.paused = paused;
+            pauseLock.notifyAll();
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void run() {
+        long previous = System.nanoTime();
+        long accumulator = 0;
+
+        while (running) {
+            if (paused) {
+                waitWhilePaused();
+                // Time spent paused must not be simulated afterwards
+                previous = System.nanoTime();
+                accumulator = 0;
+                continue;
+            }
+
+            long frameStart = System.nanoTime();
+            long elapsed = Math.min(frameStart - previous, MAX_FRAME_NANOS);
+            previous = frameStart;
+            accumulator += elapsed;
+
+            int ticks = 0;
+            while (accumulator >= stepNanos && ticks < MAX_TICKS_PER_FRAME && running) {
+                listener.tick();
+                accumulator -= stepNanos;
+                ticks++;
+            }
+            if (ticks == MAX_TICKS_PER_FRAME) {
+                // Still behind after catching up: drop the backlog instead of spiralling
+                accumulator %= stepNanos;
+            }
+
+            if (!running) {
+                break;
+            }
+            listener.render((double) accumulator / stepNanos);
+
+            long sleepNanos = frameStart + frameNanos - System.nanoTime();
+            if (sleepNanos > 0) {
+                LockSupport.parkNanos(sleepNanos);
+            }
+        }
+    }
+
+    private void waitWhilePaused() {
+        synchronized (pauseLock) {
+            while (paused && running) {
+                try {
+                    pauseLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    running = false;
+                }
+            }
+        }
+    }
+}
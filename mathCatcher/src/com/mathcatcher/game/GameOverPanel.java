@@ -1,5 +1,8 @@
 package com.mathcatcher.game;
 
+import com.mathcatcher.render.QualityTier;
+import com.mathcatcher.render.Theme;
+import com.mathcatcher.render.TitlePanel;
 import com.mathcatcher.utils.ScoreManager;
 import javax.swing.*;
 import java.awt.*;
@@ -7,8 +10,29 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 
 public class GameOverPanel extends JPanel {
+    private static final Font SCORE_FONT = new Font("SansSerif", Font.BOLD, 32);
+    private static final Font DETAIL_FONT = new Font("SansSerif", Font.PLAIN, 18);
+    private static final Font RANK_FONT = new Font("SansSerif", Font.BOLD, 18);
+    private static final Font PERCENT_FONT = new Font("SansSerif", Font.PLAIN, 16);
+    private static final Font BUTTON_FONT = new Font("SansSerif", Font.BOLD, 18);
+    private static final Color DETAIL_COLOR = new Color(200, 200, 200);
+    private static final Color RANK_COLOR = new Color(250, 204, 21); // yellow-400
+    // Button gradients, normal and hovered
+    private static final Color CONTINUE_FROM = new Color(34, 197, 94);
+    private static final Color CONTINUE_TO = new Color(22, 163, 74);
+    private static final Color CONTINUE_HOVER_FROM = new Color(22, 163, 74);
+    private static final Color CONTINUE_HOVER_TO = new Color(21, 128, 61);
+    private static final Color MENU_FROM = new Color(100, 116, 139);
+    private static final Color MENU_TO = new Color(71, 85, 105);
+    private static final Color MENU_HOVER_FROM = new Color(71, 85, 105);
+    private static final Color MENU_HOVER_TO = new Color(51, 65, 85);
+
     private int finalScore;
     private DifficultySelect.Difficulty difficulty;
+    private int rank;
+    private int gameCount;
+    // Share of the earlier games on this difficulty that this one beat; -1 if it is the first
+    private int beatenPercent = -1;
     private Runnable onContinue;
     private Runnable onBackToMenu;
 
@@ -22,8 +46,13 @@ public class GameOverPanel extends JPanel {
         setLayout(new BorderLayout());
         setOpaque(false);
         
-        // Save score
-        ScoreManager.addScore(score, difficulty);
+        // Compare against the earlier games, then save; the score is written to disk in the
+        // background and the rank comes back at once
+        if (ScoreManager.getGameCount(difficulty) > 0) {
+            beatenPercent = (int) ScoreManager.getPercentile(score, difficulty);
+        }
+        rank = ScoreManager.addScore(score, difficulty);
+        gameCount = ScoreManager.getGameCount(difficulty);
         
         createGameOverScreen();
     }
@@ -35,20 +64,19 @@ public class GameOverPanel extends JPanel {
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
                 Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                QualityTier.current().applyHints(g2d);
 
                 // Semi-transparent black background with shadow
-                g2d.setColor(new Color(0, 0, 0, 100));
+                g2d.setColor(Theme.color(0, 0, 0, 100));
                 g2d.fillRoundRect(4, 4, getWidth(), getHeight(), 32, 32);
                 
                 // Main background
-                g2d.setColor(new Color(0, 0, 0, 180)); // Darker for game over
+                g2d.setColor(Theme.color(0, 0, 0, 180)); // Darker for game over
                 g2d.fillRoundRect(0, 0, getWidth(), getHeight(), 32, 32);
 
                 // Enhanced border
-                g2d.setStroke(new BasicStroke(2));
-                g2d.setColor(new Color(255, 255, 255, 40));
+                g2d.setStroke(Theme.stroke(2));
+                g2d.setColor(Theme.color(255, 255, 255, 40));
                 g2d.drawRoundRect(0, 0, getWidth() - 1, getHeight() - 1, 32, 32);
             }
         };
@@ -56,51 +84,43 @@ public class GameOverPanel extends JPanel {
         container.setBorder(BorderFactory.createEmptyBorder(40, 40, 40, 40));
 
         // Title Panel
-        JPanel titlePanel = new JPanel() {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        JPanel titlePanel = new TitlePanel((g2d, width, height) -> {
+            // Draw gradient text "Game Over"
+            Font titleFont = Theme.font("SansSerif", Font.BOLD, 64);
+            String title = "Game Over";
+            
+            java.awt.font.TextLayout textLayout = new java.awt.font.TextLayout(
+                title, titleFont, g2d.getFontRenderContext()
+            );
+            
+            FontMetrics fm = g2d.getFontMetrics(titleFont);
+            int textWidth = fm.stringWidth(title);
+            int textHeight = fm.getHeight();
+            int x = (width - textWidth) / 2;
+            int y = (height - textHeight) / 2 + fm.getAscent() - 20;
 
-                // Draw gradient text "Game Over"
-                Font titleFont = new Font("SansSerif", Font.BOLD, 64);
-                String title = "Game Over";
-                
-                java.awt.font.TextLayout textLayout = new java.awt.font.TextLayout(
-                    title, titleFont, g2d.getFontRenderContext()
-                );
-                
-                FontMetrics fm = g2d.getFontMetrics(titleFont);
-                int textWidth = fm.stringWidth(title);
-                int textHeight = fm.getHeight();
-                int x = (getWidth() - textWidth) / 2;
-                int y = (getHeight() - textHeight) / 2 + fm.getAscent() - 20;
-
-                // Red gradient for game over
-                Color red1 = new Color(239, 68, 68);    // red-500
-                Color red2 = new Color(220, 38, 38);    // red-600
-                
-                java.awt.LinearGradientPaint gradient = new java.awt.LinearGradientPaint(
-                    x, y - textHeight, x, y,
-                    new float[]{0f, 0.5f, 1f},
-                    new Color[]{red1, red2, red1}
-                );
-                
-                g2d.setPaint(gradient);
-                textLayout.draw(g2d, x, y);
-
-                // Subtitle
-                Font subtitleFont = new Font("SansSerif", Font.PLAIN, 18);
-                g2d.setFont(subtitleFont);
-                g2d.setColor(new Color(255, 255, 255, 200));
-                String subtitle = "You ran out of lives!";
-                FontMetrics subFm = g2d.getFontMetrics();
-                int subX = (getWidth() - subFm.stringWidth(subtitle)) / 2;
-                g2d.drawString(subtitle, subX, y + 40);
-            }
-        };
+            // Red gradient for game over
+            Color red1 = Theme.color(239, 68, 68);    // red-500
+            Color red2 = Theme.color(220, 38, 38);    // red-600
+            
+            java.awt.LinearGradientPaint gradient = new java.awt.LinearGradientPaint(
+                x, y - textHeight, x, y,
+                new float[]{0f, 0.5f, 1f},
+                new Color[]{red1, red2, red1}
+            );
+            
+            g2d.setPaint(gradient);
+            textLayout.draw(g2d, x, y);
+
+            // Subtitle
+            Font subtitleFont = Theme.font("SansSerif", Font.PLAIN, 18);
+            g2d.setFont(subtitleFont);
+            g2d.setColor(Theme.color(255, 255, 255, 200));
+            String subtitle = "You ran out of lives!";
+            FontMetrics subFm = g2d.getFontMetrics();
+            int subX = (width - subFm.stringWidth(subtitle)) / 2;
+            g2d.drawString(subtitle, subX, y + 40);
+        });
         titlePanel.setOpaque(false);
         titlePanel.setPreferredSize(new Dimension(0, 140));
         titlePanel.setMinimumSize(new Dimension(0, 140));
@@ -113,17 +133,32 @@ public class GameOverPanel extends JPanel {
 
         JLabel scoreLabel = new JLabel("Final Score: " + finalScore);
         scoreLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
-        scoreLabel.setFont(new Font("SansSerif", Font.BOLD, 32));
+        scoreLabel.setFont(SCORE_FONT);
         scoreLabel.setForeground(Color.WHITE);
         scoreLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 10, 0));
 
         JLabel difficultyLabel = new JLabel("Difficulty: " + difficulty.name());
         difficultyLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
-        difficultyLabel.setFont(new Font("SansSerif", Font.PLAIN, 18));
-        difficultyLabel.setForeground(new Color(200, 200, 200));
+        difficultyLabel.setFont(DETAIL_FONT);
+        difficultyLabel.setForeground(DETAIL_COLOR);
+        difficultyLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 6, 0));
+
+        JLabel rankLabel = new JLabel("Rank #" + rank + " of " + gameCount + " on " + difficulty.name());
+        rankLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        rankLabel.setFont(RANK_FONT);
+        rankLabel.setForeground(RANK_COLOR); // yellow-400
 
         scorePanel.add(scoreLabel);
         scorePanel.add(difficultyLabel);
+        scorePanel.add(rankLabel);
+        if (beatenPercent >= 0) {
+            JLabel percentLabel = new JLabel("You beat " + beatenPercent + "% of " + difficulty.name() + " runs");
+            percentLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+            percentLabel.setFont(PERCENT_FONT);
+            percentLabel.setForeground(DETAIL_COLOR);
+            percentLabel.setBorder(BorderFactory.createEmptyBorder(4, 0, 0, 0));
+            scorePanel.add(percentLabel);
+        }
 
         // Buttons panel
         JPanel buttonPanel = new JPanel();
@@ -133,9 +168,9 @@ public class GameOverPanel extends JPanel {
 
         // Continue button
         GradientButton continueButton = new GradientButton("Continue",
-            new Color(34, 197, 94), new Color(22, 163, 74), // green-500 to green-600
-            new Color(22, 163, 74), new Color(21, 128, 61)); // darker on hover
-        continueButton.setFont(new Font("SansSerif", Font.BOLD, 18));
+            CONTINUE_FROM, CONTINUE_TO, // green-500 to green-600
+            CONTINUE_HOVER_FROM, CONTINUE_HOVER_TO); // darker on hover
+        continueButton.setFont(BUTTON_FONT);
         continueButton.setPreferredSize(new Dimension(0, 55));
         continueButton.setMaximumSize(new Dimension(Integer.MAX_VALUE, 55));
         continueButton.setMinimumSize(new Dimension(0, 55));
@@ -143,9 +178,9 @@ public class GameOverPanel extends JPanel {
 
         // Back to menu button
         GradientButton menuButton = new GradientButton("Back to Main Menu",
-            new Color(100, 116, 139), new Color(71, 85, 105), // slate gray
-            new Color(71, 85, 105), new Color(51, 65, 85)); // darker on hover
-        menuButton.setFont(new Font("SansSerif", Font.BOLD, 18));
+            MENU_FROM, MENU_TO, // slate gray
+            MENU_HOVER_FROM, MENU_HOVER_TO); // darker on hover
+        menuButton.setFont(BUTTON_FONT);
         menuButton.setPreferredSize(new Dimension(0, 55));
         menuButton.setMaximumSize(new Dimension(Integer.MAX_VALUE, 55));
         menuButton.setMinimumSize(new Dimension(0, 55));
@@ -200,16 +235,17 @@ public class GameOverPanel extends JPanel {
         @Override
         protected void paintComponent(Graphics g) {
             Graphics2D g2d = (Graphics2D) g;
-            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-            g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            QualityTier tier = QualityTier.current();
+            tier.applyHints(g2d);
 
             int width = getWidth();
             int height = getHeight();
 
             // Shadow
-            g2d.setColor(new Color(0, 0, 0, 50));
-            g2d.fillRoundRect(2, 2, width, height, 12, 12);
+            if (tier.isShadows()) {
+                g2d.setColor(Theme.color(0, 0, 0, 50));
+                g2d.fillRoundRect(2, 2, width, height, 12, 12);
+            }
 
             // Background
             Color c1 = isHovered ? hoverColor1 : this.color1;
@@ -217,14 +253,14 @@ public class GameOverPanel extends JPanel {
             if (c1.equals(c2)) {
                 g2d.setColor(c1);
             } else {
-                GradientPaint gradient = new GradientPaint(0, 0, c1, width, height, c2);
+                Paint gradient = tier.gradient(0, 0, c1, width, height, c2);
                 g2d.setPaint(gradient);
             }
             g2d.fillRoundRect(0, 0, width, height, 12, 12);
 
             // Border
-            g2d.setStroke(new BasicStroke(1));
-            g2d.setColor(new Color(255, 255, 255, 30));
+            g2d.setStroke(Theme.stroke(1));
+            g2d.setColor(Theme.color(255, 255, 255, 30));
             g2d.drawRoundRect(0, 0, width - 1, height - 1, 12, 12);
 
             // Text
@@ -1,26 +1,59 @@
 package com.mathcatcher.game;
 
-import com.mathcatcher.entities.Player;
 import com.mathcatcher.entities.FallingNumber;
-import com.mathcatcher.utils.MathEquation;
+import com.mathcatcher.entities.FallingNumberStore;
+import com.mathcatcher.entities.Player;
+import com.mathcatcher.render.ActiveRenderer;
+import com.mathcatcher.render.BackgroundLayer;
+import com.mathcatcher.render.DirtyRegion;
+import com.mathcatcher.render.FallingNumberBatch;
+import com.mathcatcher.render.FrameStats;
+import com.mathcatcher.render.LayerCompositor;
+import com.mathcatcher.render.QualityTier;
+import com.mathcatcher.render.RenderScaleController;
+import com.mathcatcher.render.ScaledRenderTarget;
+import com.mathcatcher.render.Theme;
+import com.mathcatcher.utils.Collision;
+import com.mathcatcher.utils.GraphicsSettings;
 import com.mathcatcher.utils.ResolutionManager;
 import com.mathcatcher.utils.SoundManager;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.ArrayList;
 import java.util.Random;
 
-public class GamePanel extends JPanel implements ActionListener {
+public class GamePanel extends JPanel implements GameLoop.Listener {
     public static final int WIDTH = 800;
     public static final int HEIGHT = 600;
 
-    // Dynamic width and height based on current resolution
+    // Allowed range for -Dmathcatcher.tickRate
+    private static final int MIN_TICK_RATE = 20;
+    private static final int MAX_TICK_RATE = 240;
+
+    // Height of the fixed render target; its width follows the window's aspect ratio
+    private static final int LOGICAL_HEIGHT = 600;
+
+    // Above this share of the screen, one full repaint is cheaper than painting the dirty rectangles one by one
+    private static final double FULL_REPAINT_FRACTION = 0.5;
+    // Extra pixels around a number for antialiasing and its shadow
+    private static final int NUMBER_MARGIN = 3;
+    // The player's arms reach this far past its body
+    private static final int PLAYER_ARM_REACH = 15;
+
+    private static final Color SKY = new Color(135, 206, 250);
+
+    // Dynamic width and height based on current resolution, or the logical size when rendering scaled
     private int getGameWidth() {
+        if (renderTarget != null) {
+            return renderTarget.getLogicalWidth();
+        }
         return (int) ResolutionManager.getCurrentResolution().getWidth();
     }
 
     private int getGameHeight() {
+        if (renderTarget != null) {
+            return renderTarget.getLogicalHeight();
+        }
         return (int) ResolutionManager.getCurrentResolution().getHeight();
     }
 
@@ -33,29 +66,47 @@ public class GamePanel extends JPanel implements ActionListener {
         return ResolutionManager.getScaleY();
     }
 
-    private Player player;
-    private ArrayList<FallingNumber> fallingNumbers;
-    private MathEquation currentEquation;
-    private Timer gameTimer;
-    private Random rand;
-    private int score;
-    private int level;
-    private int spawnCounter;
-    private DifficultySelect.Difficulty difficulty;
-    private int lives;
-    private int correctAnswersCount; // Track correct answers for progression
-    private int wrongAnswersCount; // Track wrong answers for game over
+    private GameSimulation simulation;
+    private Player player; // Sprite drawn at the simulation's player position
+    private GameHud hud;
+    // Cached background and HUD layers; only the moving parts are drawn every frame
+    private LayerCompositor compositor;
+    private GameLoop gameLoop;
+    // Guards the game state: ticks run on the game loop thread, painting and input on the EDT
+    private final Object stateLock = new Object();
+    private volatile double renderAlpha = 1.0;
+    // Non-null when frames are rendered on the game loop thread instead of via repaint()
+    private ActiveRenderer activeRenderer;
+    private final ActiveRenderer.FramePainter framePainter = this::presentActiveFrame;
+    private final ActiveRenderer.FramePainter logicalPainter = this::paintFrame;
+    // Non-null when the game is drawn at a fixed logical size or a reduced render scale
+    private ScaledRenderTarget renderTarget;
+    // Non-null with dynamic resolution: sets the target's render scale from paint times
+    private RenderScaleController scaleController;
+    private final FallingNumberBatch numberBatch = new FallingNumberBatch();
+    private final FrameStats frameStats = new FrameStats();
+    // How long the last frame took to draw, without the scaled blit; what the render scale controller sees
+    private long paintNanos;
+    private volatile boolean showFrameStats;
+    // Changed screen areas. The active one is only used inside activeRenderer.renderFrame,
+    // the Swing one under stateLock
+    private final DirtyRegion activeRegion = new DirtyRegion();
+    private final DirtyRegion swingRegion = new DirtyRegion();
+    private final Rectangle clipRect = new Rectangle();
+    private final Rectangle viewRect = new Rectangle();
+    // Set when the next frame must be painted whole; guarded by stateLock like the painted positions
+    private boolean fullRepaintPending = true;
+    // What the last paint drew where, so it can be erased
+    private int[] paintedNumberX = new int[64];
+    private int[] paintedNumberY = new int[64];
+    private int paintedNumberCount;
+    private int paintedPlayerX;
     private boolean isPaused;
-    private boolean isGameOver;
+    private volatile boolean isGameOver;
     private Runnable onGameOver;
     @SuppressWarnings("unused")
     private Runnable onQuitToMenu;
 
-    // Timer fields
-    private int timeLimit; // Time limit in seconds based on difficulty
-    private int timeRemaining; // Time remaining in seconds
-    private int frameCounter; // Count frames for timer update (60 frames = 1 second)
-
     public GamePanel() {
         this(DifficultySelect.Difficulty.MEDIUM); // Default to medium
     }
@@ -70,29 +121,45 @@ public class GamePanel extends JPanel implements ActionListener {
 
     public GamePanel(DifficultySelect.Difficulty difficulty, Runnable onGameOver, Runnable onQuitToMenu) {
         setPreferredSize(ResolutionManager.getCurrentResolution());
-        setBackground(new Color(135, 206, 250));
+        setBackground(SKY);
         setFocusable(true);
-        this.difficulty = difficulty;
         this.onGameOver = onGameOver;
         this.onQuitToMenu = onQuitToMenu;
 
-        initGame();
+        Dimension resolution = ResolutionManager.getCurrentResolution();
+        if (GraphicsSettings.isLogicalResolution()) {
+            int logicalWidth = (int) Math.round((double) LOGICAL_HEIGHT * resolution.width / resolution.height);
+            renderTarget = new ScaledRenderTarget(logicalWidth, LOGICAL_HEIGHT);
+        } else if (GraphicsSettings.isDynamicResolution()) {
+            // Lays out at the window size; draws straight to the window until the scale drops
+            renderTarget = new ScaledRenderTarget(resolution.width, resolution.height);
+        }
+        if (GraphicsSettings.isDynamicResolution()) {
+            scaleController = new RenderScaleController(getDisplayRefreshRate());
+        }
+
+        initGame(difficulty);
 
         addKeyListener(new KeyAdapter() {
             @Override
             public void keyPressed(KeyEvent e) {
                 if (e.getKeyCode() == KeyEvent.VK_ESCAPE || e.getKeyCode() == KeyEvent.VK_P) {
                     togglePause();
-                } else if (!isPaused && !isGameOver) {
-                    player.keyPressed(e);
+                    return;
                 }
+                if (e.getKeyCode() == KeyEvent.VK_F3) {
+                    synchronized (stateLock) {
+                        showFrameStats = !showFrameStats;
+                        fullRepaintPending = true;
+                    }
+                    return;
+                }
+                setKeyState(e.getKeyCode(), true);
             }
 
             @Override
             public void keyReleased(KeyEvent e) {
-                if (!isPaused && !isGameOver) {
-                    player.keyReleased(e);
-                }
+                setKeyState(e.getKeyCode(), false);
             }
         });
 
@@ -101,14 +168,17 @@ public class GamePanel extends JPanel implements ActionListener {
             public void mouseClicked(MouseEvent e) {
                 if (isGameOver) return;
 
+                // Hit tests are in game coordinates
+                Point p = toGamePoint(e.getX(), e.getY());
+
                 // Pause button click
                 int btnX = getGameWidth() - 120;
                 int btnY = 20;
                 int btnWidth = 100;
                 int btnHeight = 40;
                 
-                if (e.getX() >= btnX && e.getX() <= btnX + btnWidth &&
-                    e.getY() >= btnY && e.getY() <= btnY + btnHeight) {
+                if (p.x >= btnX && p.x <= btnX + btnWidth &&
+                    p.y >= btnY && p.y <= btnY + btnHeight) {
                     togglePause();
                     return;
                 }
@@ -123,13 +193,13 @@ public class GamePanel extends JPanel implements ActionListener {
                     int btnSpacing = 55;
 
                     // Resume button
-                    if (e.getX() >= menuX + 25 && e.getX() <= menuX + menuWidth - 25 &&
-                        e.getY() >= btnY2 && e.getY() <= btnY2 + btnHeight2) {
+                    if (p.x >= menuX + 25 && p.x <= menuX + menuWidth - 25 &&
+                        p.y >= btnY2 && p.y <= btnY2 + btnHeight2) {
                         togglePause();
                     }
                     // Quit button
-                    else if (e.getX() >= menuX + 25 && e.getX() <= menuX + menuWidth - 25 &&
-                             e.getY() >= btnY2 + btnSpacing && e.getY() <= btnY2 + btnSpacing + btnHeight2) {
+                    else if (p.x >= menuX + 25 && p.x <= menuX + menuWidth - 25 &&
+                             p.y >= btnY2 + btnSpacing && p.y <= btnY2 + btnSpacing + btnHeight2) {
                         if (onQuitToMenu != null) {
                             onQuitToMenu.run();
                         }
@@ -141,42 +211,89 @@ public class GamePanel extends JPanel implements ActionListener {
         // Create pause button
         createPauseButton();
 
-        gameTimer = new Timer(16, this); // ~60 FPS
-        gameTimer.start();
+        if (GraphicsSettings.isActiveRendering()) {
+            activeRenderer = new ActiveRenderer(this);
+        }
+
+        gameLoop = new GameLoop(this, getTickRate(), getDisplayRefreshRate());
+        gameLoop.start();
+    }
+
+    // Window (mouse) coordinates to the coordinates the game is laid out in
+    private Point toGamePoint(int x, int y) {
+        if (renderTarget == null) {
+            return new Point(x, y);
+        }
+        return renderTarget.toLogical(x, y, getWidth(), getHeight());
+    }
+
+    // Fixed simulation rate; weak machines can lower it with -Dmathcatcher.tickRate=30
+    private static int getTickRate() {
+        int tickRate = Integer.getInteger("mathcatcher.tickRate", GameLoop.TICKS_PER_SECOND);
+        return Math.max(MIN_TICK_RATE, Math.min(MAX_TICK_RATE, tickRate));
     }
 
-    private void initGame() {
+    // Render at the monitor's refresh rate; the simulation itself always ticks at a fixed rate
+    private static int getDisplayRefreshRate() {
+        try {
+            int refreshRate = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDisplayMode().getRefreshRate();
+            if (refreshRate != DisplayMode.REFRESH_RATE_UNKNOWN) {
+                return refreshRate;
+            }
+        } catch (HeadlessException e) {
+            // No screen to pace against
+        }
+        return GameLoop.TICKS_PER_SECOND;
+    }
+
+    private void initGame(DifficultySelect.Difficulty difficulty) {
+        simulation = new GameSimulation(difficulty, getGameWidth(), getGameHeight(), new Random(), getTickRate());
+        simulation.setEventListener(this::onSimulationEvent);
         player = new Player(getGameWidth() / 2, getGameHeight() - 80);
-        player.setScreenWidth(getGameWidth());
-        fallingNumbers = new ArrayList<>();
-        // Note: difficulty is already set from constructor parameter
-        currentEquation = new MathEquation(1, difficulty);
-        rand = new Random();
-        score = 0;
-        level = 1;
-        spawnCounter = 0;
-        lives = 3;
-        correctAnswersCount = 0;
-        wrongAnswersCount = 0;
+        hud = new GameHud(getGameWidth(), getGameHeight());
+        compositor = new LayerCompositor(getGameWidth(), getGameHeight(), this::paintStaticLayer, this::paintSlowLayer);
         isPaused = false;
         isGameOver = false;
+    }
+
+    private void setKeyState(int keyCode, boolean pressed) {
+        synchronized (stateLock) {
+            if (isPaused || isGameOver) {
+                return;
+            }
+            if (keyCode == KeyEvent.VK_LEFT || keyCode == KeyEvent.VK_A) {
+                simulation.setLeftPressed(pressed);
+            }
+            if (keyCode == KeyEvent.VK_RIGHT || keyCode == KeyEvent.VK_D) {
+                simulation.setRightPressed(pressed);
+            }
+        }
+    }
 
-        // Initialize timer based on difficulty
-        switch (difficulty) {
-            case EASY:
-                timeLimit = 120; // 2 minutes
+    // Called from inside simulation.tick(), on the game loop thread
+    private void onSimulationEvent(GameSimulation.Event event) {
+        switch (event) {
+            case CATCH:
+                SoundManager.playSound(SoundManager.Sound.CATCH);
                 break;
-            case MEDIUM:
-                timeLimit = 90; // 1.5 minutes
+            case CORRECT:
+                SoundManager.playSound(SoundManager.Sound.CORRECT);
                 break;
-            case HARD:
-                timeLimit = 60; // 1 minute
+            case WRONG:
+                SoundManager.playSound(SoundManager.Sound.WRONG);
+                break;
+            case LEVEL_UP:
+                SoundManager.playSound(SoundManager.Sound.LEVEL_UP);
+                break;
+            case TIMER_WARNING:
+                // Play warning sound at 10 seconds
+                SoundManager.playSound(SoundManager.Sound.TIMER_WARNING);
+                break;
+            case GAME_OVER:
+                endGame();
                 break;
-            default:
-                timeLimit = 90;
         }
-        timeRemaining = timeLimit;
-        frameCounter = 0;
     }
 
     private void createPauseButton() {
@@ -184,182 +301,142 @@ public class GamePanel extends JPanel implements ActionListener {
     }
 
     private void togglePause() {
-        if (!isGameOver) {
+        synchronized (stateLock) {
+            if (isGameOver) {
+                return;
+            }
             isPaused = !isPaused;
-            if (isPaused) {
-                gameTimer.stop();
-            } else {
-                gameTimer.start();
-                requestFocus();
+            gameLoop.setPaused(isPaused);
+            // The pause menu is drawn into the slow layer once, here; it covers the whole screen
+            compositor.invalidate(LayerCompositor.Layer.SLOW);
+            fullRepaintPending = true;
+        }
+        if (!isPaused) {
+            requestFocus();
+        }
+        requestFrame();
+    }
+
+    @Override
+    public void tick() {
+        synchronized (stateLock) {
+            if (!isPaused) {
+                simulation.tick();
             }
-            repaint();
+        }
+        if (isGameOver) {
+            // The loop stops after this tick, so show the final state now (outside the lock)
+            requestFrame();
         }
     }
 
     @Override
-    public void actionPerformed(ActionEvent e) {
-        update();
-        repaint();
+    public void render(double alpha) {
+        renderAlpha = alpha;
+        requestFrame();
     }
 
-    private void update() {
-        if (isPaused || isGameOver) {
+    // Draw a new frame now (active rendering) or schedule one through Swing
+    private void requestFrame() {
+        if (activeRenderer != null && activeRenderer.renderFrame(framePainter, activeRegion)) {
             return;
         }
-
-        player.update();
-
-        // Update timer (count down every 60 frames = 1 second)
-        frameCounter++;
-        if (frameCounter >= 60) {
-            frameCounter = 0;
-            timeRemaining--;
-
-            // Play warning sound at 10 seconds
-            if (timeRemaining == 10) {
-                SoundManager.playSound(SoundManager.Sound.TIMER_WARNING);
-            }
-
-            // Check if time ran out
-            if (timeRemaining <= 0) {
-                timeRemaining = 0;
-                endGame();
-                return;
-            }
+        if (activeRenderer != null) {
+            // Not on screen yet; Swing paints all of it when it is
+            repaint();
+            return;
         }
 
-        // Spawn falling numbers (rate based on difficulty)
-        spawnCounter++;
-        int baseSpawnRate;
-        switch (difficulty) {
-            case EASY:
-                baseSpawnRate = 40; // Slower spawn
-                break;
-            case MEDIUM:
-                baseSpawnRate = 30;
-                break;
-            case HARD:
-                baseSpawnRate = 20; // Faster spawn
-                break;
-            default:
-                baseSpawnRate = 30;
+        // Swing merges repainted areas into one bounding box per component, so ask for that directly
+        Rectangle bounds;
+        synchronized (stateLock) {
+            swingRegion.setViewSize(getWidth(), getHeight());
+            collectDirtyRegion(swingRegion);
+            bounds = swingRegion.getBounds(new Rectangle());
+            swingRegion.clear();
         }
-        int spawnRate = Math.max(baseSpawnRate - level * 2, 10);
-        if (spawnCounter >= spawnRate) {
-            spawnCounter = 0;
-            spawnNumber();
-        }
-
-        // Update falling numbers
-        for (int i = fallingNumbers.size() - 1; i >= 0; i--) {
-            FallingNumber num = fallingNumbers.get(i);
-            num.update();
-
-            // Check collision
-            if (num.getBounds().intersects(player.getBounds()) && !num.isCaught()) {
-                num.setCaught(true);
-                // Play catch sound
-                SoundManager.playSound(SoundManager.Sound.CATCH);
-                handleNumberCatch(num.getValue());
-                // Remove the caught number
-                fallingNumbers.remove(i);
-                continue; // Skip the off-screen check since we already removed it
-            }
-
-            // Remove off-screen numbers (only if they're not caught)
-            if (num.isOffScreen(getGameHeight())) {
-                fallingNumbers.remove(i);
-            }
+        if (!bounds.isEmpty()) {
+            repaint(bounds);
         }
     }
 
-    private void spawnNumber() {
-        int x = rand.nextInt(getGameWidth() - 50);
-        int value;
+    /**
+     * Add to region everything that may look different in the next frame:
+     * where numbers and the player were last painted and where they can be
+     * now (one tick ahead, as Swing may paint a little later), and the HUD
+     * parts whose values changed. Call with stateLock held.
+     */
+    private void collectDirtyRegion(DirtyRegion region) {
+        // First, so the HUD values are noted even when everything is repainted
+        hud.collectDirty(simulation, isPaused, region);
+
+        // A scaled image is redrawn and blitted whole
+        if (fullRepaintPending || (renderTarget != null && !renderTarget.isPassthrough(getWidth(), getHeight()))) {
+            fullRepaintPending = false;
+            region.addAll();
+            return;
+        }
 
-        // 40% chance correct answer, 60% random numbers
-        if (rand.nextDouble() < 0.4) {
-            value = currentEquation.getAnswer();
-        } else {
-            value = rand.nextInt(50) + 1;
-            // Avoid spawning the correct answer
-            if (value == currentEquation.getAnswer()) {
-                value += rand.nextInt(10) + 1;
-            }
+        int box = FallingNumber.SIZE + 3 + 2 * NUMBER_MARGIN;
+        for (int i = 0; i < paintedNumberCount; i++) {
+            region.add(paintedNumberX[i] - NUMBER_MARGIN, paintedNumberY[i] - NUMBER_MARGIN, box, box);
+        }
+        FallingNumberStore numbers = simulation.getNumbers();
+        for (int i = 0; i < numbers.size(); i++) {
+            int top = (int) Math.floor(Math.min(numbers.getPrevY(i), numbers.getY(i))) - NUMBER_MARGIN;
+            int bottom = (int) Math.ceil(numbers.getY(i) + Math.max(numbers.getVelocity(i), 0)) - NUMBER_MARGIN + box;
+            region.add(numbers.getX(i) - NUMBER_MARGIN, top, box, bottom - top);
         }
 
-        fallingNumbers.add(new FallingNumber(x, 0, value, level, difficulty));
+        double step = simulation.getPlayerMaxStep();
+        double from = Math.min(paintedPlayerX, Math.min(simulation.getPlayerX(0), simulation.getPlayerX(1))) - step;
+        double to = Math.max(paintedPlayerX, Math.max(simulation.getPlayerX(0), simulation.getPlayerX(1))) + step;
+        int left = (int) Math.floor(from) - PLAYER_ARM_REACH - NUMBER_MARGIN;
+        int right = (int) Math.ceil(to) + Player.WIDTH + PLAYER_ARM_REACH + NUMBER_MARGIN;
+        int top = (int) simulation.getPlayerY() - NUMBER_MARGIN;
+        region.add(left, top, right - left, Player.HEIGHT + 2 * NUMBER_MARGIN);
+
+        if (showFrameStats) {
+            // Its text changes every frame
+            region.add(10, getGameHeight() - 70, getWidth(), 20);
+        }
     }
 
-    private void handleNumberCatch(int value) {
-        if (value == currentEquation.getAnswer()) {
-            // Correct answer: add points and increment count
-            score += 10 * level;
-            correctAnswersCount++;
-
-            // Play correct sound
-            SoundManager.playSound(SoundManager.Sound.CORRECT);
-
-            // Level up every 50 points
-            int newLevel = (score / 50) + 1;
-            if (newLevel > level) {
-                level = newLevel;
-                // Play level up sound
-                SoundManager.playSound(SoundManager.Sound.LEVEL_UP);
-            }
-
-            // Progress through difficulties based on correct answers:
-            // Easy: 20 correct answers -> Medium
-            // Medium: 30 correct answers -> Hard
-            // Hard: 40 correct answers -> Game ends
-            if (difficulty == DifficultySelect.Difficulty.EASY && correctAnswersCount >= 20) {
-                difficulty = DifficultySelect.Difficulty.MEDIUM;
-                correctAnswersCount = 0; // Reset count for next difficulty
-                // Keep wrong answers count - it doesn't reset
-            } else if (difficulty == DifficultySelect.Difficulty.MEDIUM && correctAnswersCount >= 30) {
-                difficulty = DifficultySelect.Difficulty.HARD;
-                correctAnswersCount = 0; // Reset count for next difficulty
-                // Keep wrong answers count - it doesn't reset
-            } else if (difficulty == DifficultySelect.Difficulty.HARD && correctAnswersCount >= 40) {
-                // Complete all difficulties - game ends
-                endGame();
-                return;
-            }
-
-            currentEquation = new MathEquation(level, difficulty);
-        } else {
-            // Wrong answer: increment wrong answers count
-            wrongAnswersCount++;
-            
-            // Play wrong sound
-            SoundManager.playSound(SoundManager.Sound.WRONG);
-
-            // Game over after 3 wrong answers
-            if (wrongAnswersCount >= 3) {
-                endGame();
-            }
+    @Override
+    public void removeNotify() {
+        // The panel is discarded when a new game starts or the window is rebuilt
+        gameLoop.stop();
+        if (activeRenderer != null) {
+            activeRenderer.dispose();
+        }
+        if (renderTarget != null) {
+            renderTarget.dispose();
+        }
+        synchronized (stateLock) {
+            compositor.dispose();
         }
+        super.removeNotify();
     }
 
     private void endGame() {
         isGameOver = true;
-        gameTimer.stop();
+        gameLoop.stop();
 
         // Play game over sound
         SoundManager.playSound(SoundManager.Sound.GAME_OVER);
 
+        // We are on the game loop thread here; screen switches belong on the EDT
         if (onGameOver != null) {
-            onGameOver.run();
+            SwingUtilities.invokeLater(onGameOver);
         }
-        repaint();
     }
 
     public int getScore() {
-        return score;
+        return simulation.getScore();
     }
 
     public int getLives() {
-        return lives;
+        return simulation.getLives();
     }
 
     public boolean isGameOver() {
@@ -375,68 +452,141 @@ public class GamePanel extends JPanel implements ActionListener {
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        Graphics2D g2d = (Graphics2D) g;
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
-        drawBackground(g2d);
-        drawUI(g2d);
+        // With active rendering Swing only needs the last frame put back on screen
+        if (activeRenderer != null && activeRenderer.paintLastFrame(g)) {
+            return;
+        }
+        // Swing has already clipped g to what needs repainting
+        presentFrame((Graphics2D) g, null);
+    }
 
-        // Draw entities
-        for (FallingNumber num : fallingNumbers) {
-            if (!num.isCaught()) {
-                num.draw(g2d);
+    // Active rendering: the back buffer still holds the last frame, so only what changed is drawn again
+    private void presentActiveFrame(Graphics2D g2d) {
+        synchronized (stateLock) {
+            activeRegion.setViewSize(getWidth(), getHeight());
+            collectDirtyRegion(activeRegion);
+        }
+        presentFrame(g2d, activeRegion);
+    }
+
+    /**
+     * Paint straight onto g2d, or into the logical target and scale that onto
+     * g2d. With a partial region (never scaled: see collectDirtyRegion), each
+     * of its rectangles is painted on its own, clipped to it and with only the
+     * numbers and sprites that reach into it.
+     */
+    private void presentFrame(Graphics2D g2d, DirtyRegion region) {
+        frameStats.beginFrame();
+        paintNanos = 0;
+        if (region == null || region.isLarge(FULL_REPAINT_FRACTION)
+                || (renderTarget != null && !renderTarget.isPassthrough(getWidth(), getHeight()))) {
+            presentAll(g2d);
+        } else {
+            Shape clip = g2d.getClip();
+            synchronized (stateLock) {
+                // One game state for all rectangles; a tick in between would tear the frame
+                double alpha = getPaintAlpha();
+                for (int i = 0; i < region.getRectCount(); i++) {
+                    region.getRect(i, clipRect);
+                    g2d.setClip(clip);
+                    g2d.clip(clipRect);
+                    paintArea(g2d, clipRect, alpha);
+                }
+                recordPainted(simulation.getNumbers(), alpha);
             }
+            g2d.setClip(clip);
         }
+        frameStats.endFrame();
+
+        // Only the drawing scales with the render scale; the blit to the window costs the same at every scale
+        if (scaleController != null && !isPaused && scaleController.recordFrame(paintNanos)) {
+            renderTarget.setRenderScale(scaleController.getScale());
+            synchronized (stateLock) {
+                fullRepaintPending = true;
+            }
+        }
+    }
 
-        player.draw(g2d);
+    private void presentAll(Graphics2D g2d) {
+        if (renderTarget == null) {
+            paintFrame(g2d);
+        } else {
+            renderTarget.present(g2d, getWidth(), getHeight(), logicalPainter);
+        }
     }
 
-    private void drawBackground(Graphics2D g2d) {
-        // Sky gradient
-        GradientPaint sky = new GradientPaint(0, 0, new Color(135, 206, 250),
-                0, getGameHeight(), new Color(176, 224, 230));
-        g2d.setPaint(sky);
-        g2d.fillRect(0, 0, getGameWidth(), getGameHeight());
+    // The whole frame, in game coordinates
+    private void paintFrame(Graphics2D g2d) {
+        synchronized (stateLock) {
+            double alpha = getPaintAlpha();
+            viewRect.setBounds(0, 0, getGameWidth(), getGameHeight());
+            paintArea(g2d, viewRect, alpha);
+            recordPainted(simulation.getNumbers(), alpha);
+        }
+    }
 
-        // Ground
-        g2d.setColor(new Color(34, 139, 34));
-        g2d.fillRect(0, getGameHeight() - 50, getGameWidth(), 50);
+    private double getPaintAlpha() {
+        return isPaused || isGameOver ? 1.0 : renderAlpha;
     }
 
-    private void drawUI(Graphics2D g2d) {
-        // Equation box
-        g2d.setColor(new Color(255, 255, 255, 200));
-        g2d.fillRoundRect(getGameWidth() / 2 - 150, 20, 300, 60, 15, 15);
-        g2d.setColor(Color.BLACK);
-        g2d.setStroke(new BasicStroke(3));
-        g2d.drawRoundRect(getGameWidth() / 2 - 150, 20, 300, 60, 15, 15);
+    // Draw what shows in area; the caller has clipped g2d to it. Call with stateLock held.
+    private void paintArea(Graphics2D g2d, Rectangle area, double alpha) {
+        long start = System.nanoTime();
+        QualityTier.current().applyHints(g2d);
 
-        // Equation text
-        g2d.setFont(new Font("Arial", Font.BOLD, 32));
-        String equation = currentEquation.toString();
-        FontMetrics fm = g2d.getFontMetrics();
-        int textWidth = fm.stringWidth(equation);
-        g2d.drawString(equation, getGameWidth() / 2 - textWidth / 2, 60);
+        // Background, HUD and pause menu: one blit unless a HUD value changed
+        if (hud.isStale(simulation, isPaused)) {
+            compositor.invalidate(LayerCompositor.Layer.SLOW);
+        }
+        compositor.draw(g2d, frameStats);
+
+        // Draw entities: all numbers in one pass sorted by value, so each sprite is fetched once
+        FallingNumberStore numbers = simulation.getNumbers();
+        numberBatch.draw(g2d, numbers, alpha, area, frameStats);
+
+        double playerX = simulation.getPlayerX(alpha);
+        int reach = PLAYER_ARM_REACH + NUMBER_MARGIN;
+        if (Collision.intersects((int) playerX - reach, (int) simulation.getPlayerY() - NUMBER_MARGIN,
+                Player.WIDTH + 2 * reach, Player.HEIGHT + 2 * NUMBER_MARGIN,
+                area.x, area.y, area.width, area.height)) {
+            player.setPosition(playerX, simulation.getPlayerY());
+            player.draw(g2d);
+        }
 
-        // Score and level
-        g2d.setFont(new Font("Arial", Font.BOLD, 24));
-        g2d.setColor(Color.WHITE);
-        g2d.drawString("Score: " + score, 20, 40);
-        g2d.drawString("Level: " + level, 20, 70);
-        
-        // Draw hearts for lives (3 - wrongAnswersCount)
-        drawHearts(g2d, 20, 100);
+        if (showFrameStats) {
+            drawFrameStats(g2d, numbers.size());
+        }
+        paintNanos += System.nanoTime() - start;
+    }
 
-        // Draw timer (top right corner)
-        drawTimer(g2d);
+    // Remember where this frame put the moving parts; the next frame erases them there
+    private void recordPainted(FallingNumberStore numbers, double alpha) {
+        int count = numbers.size();
+        if (paintedNumberX.length < count) {
+            paintedNumberX = new int[count * 2];
+            paintedNumberY = new int[count * 2];
+        }
+        for (int i = 0; i < count; i++) {
+            paintedNumberX[i] = numbers.getX(i);
+            paintedNumberY[i] = (int) numbers.getY(i, alpha);
+        }
+        paintedNumberCount = count;
+        paintedPlayerX = (int) simulation.getPlayerX(alpha);
+    }
 
-        // Pause button
-        drawPauseButton(g2d);
+    // Static layer: sky, ground and the key help line
+    private void paintStaticLayer(Graphics2D g2d) {
+        // Drawn from scratch: this layer is the cache, so BackgroundLayer's image stays the menus' size
+        BackgroundLayer.paintScene(g2d, getGameWidth(), getGameHeight());
+        hud.drawStatic(g2d);
+        frameStats.addDrawCalls(3); // sky, ground and help line
+    }
 
-        // Instructions
-        g2d.setFont(new Font("Arial", Font.PLAIN, 16));
-        g2d.setColor(Color.DARK_GRAY);
-        g2d.drawString("← → Arrow keys to move | P/Pause to pause | Catch the correct answer!", getGameWidth() / 2 - 280, getGameHeight() - 15);
+    // Slow layer: called under stateLock when the HUD changed or the game was paused or resumed
+    private void paintSlowLayer(Graphics2D g2d) {
+        // Equation, score, lives, timer and pause button; cached until their values change
+        hud.draw(g2d, simulation, isPaused, frameStats);
 
         // Draw pause overlay
         if (isPaused) {
@@ -444,139 +594,37 @@ public class GamePanel extends JPanel implements ActionListener {
         }
     }
 
-    private void drawHearts(Graphics2D g2d, int x, int y) {
-        int heartsRemaining = 3 - wrongAnswersCount;
-        int heartSize = 24;
-        int spacing = 30;
-        
-        for (int i = 0; i < 3; i++) {
-            int heartX = x + (i * spacing);
-            
-            if (i < heartsRemaining) {
-                // Full heart (red)
-                g2d.setColor(new Color(255, 0, 0));
-            } else {
-                // Empty heart (gray)
-                g2d.setColor(new Color(100, 100, 100));
-            }
-            
-            // Draw heart shape
-            drawHeart(g2d, heartX, y, heartSize);
-        }
-    }
-    
-    private void drawHeart(Graphics2D g2d, int x, int y, int size) {
-        int[] xPoints = new int[6];
-        int[] yPoints = new int[6];
-        
-        // Simplified heart shape using a polygon
-        int centerX = x + size / 2;
-        int centerY = y + size / 2;
-        
-        xPoints[0] = centerX;
-        yPoints[0] = centerY + size / 4;
-        
-        xPoints[1] = centerX - size / 3;
-        yPoints[1] = centerY - size / 6;
-        
-        xPoints[2] = centerX - size / 2;
-        yPoints[2] = centerY - size / 3;
-        
-        xPoints[3] = centerX;
-        yPoints[3] = centerY - size / 2;
-        
-        xPoints[4] = centerX + size / 2;
-        yPoints[4] = centerY - size / 3;
-        
-        xPoints[5] = centerX + size / 3;
-        yPoints[5] = centerY - size / 6;
-        
-        g2d.fillPolygon(xPoints, yPoints, 6);
-        
-        // Draw two circles for the top of the heart
-        int circleSize = size / 2;
-        g2d.fillOval(centerX - size / 2, centerY - size / 2, circleSize, circleSize);
-        g2d.fillOval(centerX, centerY - size / 2, circleSize, circleSize);
-    }
-
-    private void drawTimer(Graphics2D g2d) {
-        // Calculate minutes and seconds
-        int minutes = timeRemaining / 60;
-        int seconds = timeRemaining % 60;
-        String timeText = String.format("%d:%02d", minutes, seconds);
-
-        // Position at top right (above pause button)
-        int timerX = getGameWidth() - 120;
-        int timerY = 75;
-        int timerWidth = 100;
-        int timerHeight = 50;
-
-        // Timer background box
-        Color timerBgColor;
-        Color timerTextColor;
-
-        // Change color based on time remaining
-        if (timeRemaining <= 10) {
-            // Red - critical time
-            timerBgColor = new Color(220, 38, 38, 220);
-            timerTextColor = Color.WHITE;
-        } else if (timeRemaining <= 30) {
-            // Orange - warning
-            timerBgColor = new Color(234, 88, 12, 220);
-            timerTextColor = Color.WHITE;
-        } else {
-            // Green/Blue - normal
-            timerBgColor = new Color(59, 130, 246, 220);
-            timerTextColor = Color.WHITE;
-        }
-
-        g2d.setColor(timerBgColor);
-        g2d.fillRoundRect(timerX, timerY, timerWidth, timerHeight, 10, 10);
-        g2d.setColor(new Color(255, 255, 255, 100));
-        g2d.setStroke(new BasicStroke(2));
-        g2d.drawRoundRect(timerX, timerY, timerWidth, timerHeight, 10, 10);
-
-        // Timer label
-        g2d.setColor(timerTextColor);
-        g2d.setFont(new Font("Arial", Font.BOLD, 12));
-        String label = "TIME";
-        FontMetrics labelFm = g2d.getFontMetrics();
-        int labelWidth = labelFm.stringWidth(label);
-        g2d.drawString(label, timerX + (timerWidth - labelWidth) / 2, timerY + 15);
-
-        // Timer text
-        g2d.setFont(new Font("Arial", Font.BOLD, 24));
-        FontMetrics fm = g2d.getFontMetrics();
-        int textWidth = fm.stringWidth(timeText);
-        g2d.drawString(timeText, timerX + (timerWidth - textWidth) / 2, timerY + 38);
+    // F3 debug overlay: counters of the last finished frame
+    private void drawFrameStats(Graphics2D g2d, int numberCount) {
+        String text = String.format("numbers %d  draws %d  state changes %d  %.2f ms  scale %.2f",
+                numberCount, frameStats.getDrawCalls(), frameStats.getStateChanges(),
+                frameStats.getFrameNanos() / 1_000_000.0,
+                renderTarget != null ? renderTarget.getRenderScale() : 1.0);
+        g2d.setFont(Theme.font("Monospaced", Font.PLAIN, 12));
+        g2d.setColor(Theme.color(0, 0, 0, 150));
+        g2d.fillRect(10, getGameHeight() - 70, g2d.getFontMetrics().stringWidth(text) + 10, 20);
+        g2d.setColor(Color.WHITE);
+        g2d.drawString(text, 15, getGameHeight() - 56);
     }
 
-    private void drawPauseButton(Graphics2D g2d) {
-        int btnX = getGameWidth() - 120;
-        int btnY = 20;
-        int btnWidth = 100;
-        int btnHeight = 40;
-
-        // Button background
-        g2d.setColor(new Color(100, 116, 139, 200));
-        g2d.fillRoundRect(btnX, btnY, btnWidth, btnHeight, 8, 8);
-        g2d.setColor(new Color(255, 255, 255, 100));
-        g2d.setStroke(new BasicStroke(2));
-        g2d.drawRoundRect(btnX, btnY, btnWidth, btnHeight, 8, 8);
+    // Counters of the last painted frame
+    public FrameStats getFrameStats() {
+        return frameStats;
+    }
 
-        // Button text
-        g2d.setFont(new Font("Arial", Font.BOLD, 18));
-        g2d.setColor(Color.WHITE);
-        FontMetrics fm = g2d.getFontMetrics();
-        String text = isPaused ? "Resume" : "Pause";
-        int textWidth = fm.stringWidth(text);
-        g2d.drawString(text, btnX + (btnWidth - textWidth) / 2, btnY + 28);
+    // Current render scale and its change history; null unless dynamic resolution is on
+    public RenderScaleController getRenderScaleController() {
+        return scaleController;
     }
 
     private void drawPauseOverlay(Graphics2D g2d) {
-        // Semi-transparent overlay
-        g2d.setColor(new Color(0, 0, 0, 150));
-        g2d.fillRect(0, 0, getGameWidth(), getGameHeight());
+        QualityTier tier = QualityTier.current();
+
+        // Semi-transparent overlay; blending the whole screen is too slow for the low tier
+        if (tier.isTranslucency()) {
+            g2d.setColor(Theme.color(0, 0, 0, 150));
+            g2d.fillRect(0, 0, getGameWidth(), getGameHeight());
+        }
 
         // Pause menu box
         int menuX = getGameWidth() / 2 - 150;
@@ -584,14 +632,14 @@ public class GamePanel extends JPanel implements ActionListener {
         int menuWidth = 300;
         int menuHeight = 250;
 
-        g2d.setColor(new Color(0, 0, 0, 200));
+        g2d.setColor(tier.color(0, 0, 0, 200));
         g2d.fillRoundRect(menuX, menuY, menuWidth, menuHeight, 20, 20);
-        g2d.setColor(new Color(255, 255, 255, 100));
-        g2d.setStroke(new BasicStroke(3));
+        g2d.setColor(tier.color(255, 255, 255, 100));
+        g2d.setStroke(Theme.stroke(3));
         g2d.drawRoundRect(menuX, menuY, menuWidth, menuHeight, 20, 20);
 
         // Title
-        g2d.setFont(new Font("Arial", Font.BOLD, 36));
+        g2d.setFont(Theme.font("Arial", Font.BOLD, 36));
         g2d.setColor(Color.WHITE);
         FontMetrics fm = g2d.getFontMetrics();
         String title = "PAUSED";
@@ -604,12 +652,12 @@ public class GamePanel extends JPanel implements ActionListener {
         int btnSpacing = 55;
 
         // Resume button
-        g2d.setColor(new Color(34, 197, 94, 200));
+        g2d.setColor(tier.color(34, 197, 94, 200));
         g2d.fillRoundRect(menuX + 25, btnY, menuWidth - 50, btnHeight, 10, 10);
-        g2d.setColor(new Color(255, 255, 255, 100));
-        g2d.setStroke(new BasicStroke(2));
+        g2d.setColor(tier.color(255, 255, 255, 100));
+        g2d.setStroke(Theme.stroke(2));
         g2d.drawRoundRect(menuX + 25, btnY, menuWidth - 50, btnHeight, 10, 10);
-        g2d.setFont(new Font("Arial", Font.BOLD, 20));
+        g2d.setFont(Theme.font("Arial", Font.BOLD, 20));
         g2d.setColor(Color.WHITE);
         FontMetrics btnFm = g2d.getFontMetrics();
         String resumeText = "Resume (P/ESC)";
@@ -617,9 +665,9 @@ public class GamePanel extends JPanel implements ActionListener {
         g2d.drawString(resumeText, menuX + (menuWidth - resumeWidth) / 2, btnY + 30);
 
         // Quit button
-        g2d.setColor(new Color(239, 68, 68, 200));
+        g2d.setColor(tier.color(239, 68, 68, 200));
         g2d.fillRoundRect(menuX + 25, btnY + btnSpacing, menuWidth - 50, btnHeight, 10, 10);
-        g2d.setColor(new Color(255, 255, 255, 100));
+        g2d.setColor(tier.color(255, 255, 255, 100));
         g2d.drawRoundRect(menuX + 25, btnY + btnSpacing, menuWidth - 50, btnHeight, 10, 10);
         String quitText = "Quit to Menu";
         int quitWidth = btnFm.stringWidth(quitText);
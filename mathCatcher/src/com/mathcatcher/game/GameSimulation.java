@@ -0,0 +1,471 @@
+package com.mathcatcher.game;
+
+import com.mathcatcher.entities.FallingNumber;
+import com.mathcatcher.entities.FallingNumberStore;
+import com.mathcatcher.entities.Player;
+import com.mathcatcher.utils.Collision;
+import com.mathcatcher.utils.MathEquation;
+import java.util.Random;
+
+/**
+ * The Math Catcher rules: spawning, falling, catching, scoring, levels, the
+ * round timer and difficulty progression.
+ *
+ * Uses nothing outside java.base, so it can run headless (CI boxes, balancing
+ * scripts) as fast as the CPU allows. Each call to tick() advances the game by
+ * one fixed step of 1 / ticksPerSecond seconds (GameLoop.TICKS_PER_SECOND
+ * unless told otherwise). Input comes in through setInput() and everything the
+ * UI should react to (sounds, game over) goes out through the EventListener.
+ * GamePanel is just a view over this.
+ *
+ * Speeds and spawn intervals below are tuned per tick at the default rate and
+ * scaled to the actual step, so a slower tick rate plays the same game in
+ * bigger steps. Catches are tested along the whole step (swept), so a number
+ * never slips through the catcher however far it moves in one tick.
+ */
+public class GameSimulation {
+    // Entity sizes, taken from the Player and FallingNumber sprites
+    public static final int PLAYER_WIDTH = Player.WIDTH;
+    public static final int PLAYER_HEIGHT = Player.HEIGHT;
+    public static final int NUMBER_SIZE = FallingNumber.SIZE;
+
+    public static final int MAX_LIVES = 3;
+
+    // Player movement, per tick at GameLoop.TICKS_PER_SECOND
+    private static final double PLAYER_ACCELERATION = 1.5;
+    private static final double PLAYER_MAX_SPEED = 8;
+    private static final double PLAYER_FRICTION = 0.85;
+
+    public enum Event {
+        CATCH, CORRECT, WRONG, LEVEL_UP, TIMER_WARNING, GAME_OVER
+    }
+
+    public interface EventListener {
+        void onEvent(Event event);
+    }
+
+    private static final EventListener NO_LISTENER = event -> { };
+
+    private final int width;
+    private final int height;
+    private final Random rand;
+    private final int ticksPerSecond;
+    private final double stepScale; // length of a tick relative to the default rate
+    private EventListener listener = NO_LISTENER;
+
+    // Player
+    private double playerX, playerPrevX, playerY;
+    private double playerVelocityX;
+    private boolean leftPressed, rightPressed;
+
+    // Falling numbers
+    private final FallingNumberStore numbers;
+
+    // Game state
+    private MathEquation currentEquation;
+    private int equationNumber; // Bumped for every new equation
+    private final DifficultySelect.Difficulty startDifficulty;
+    private DifficultySelect.Difficulty difficulty; // Moves up as the player progresses
+    private int score;
+    private int level;
+    private double spawnCounter; // in default-rate ticks
+    private int correctAnswersCount; // Track correct answers for progression
+    private int wrongAnswersCount; // Track wrong answers for game over
+    private boolean gameOver;
+    private long tickCount;
+
+    // Round timer
+    private final int timeLimit; // Time limit in seconds based on difficulty
+    private int timeRemaining; // Time remaining in seconds
+    private int tickCounter; // Ticks since the last whole second
+
+    public GameSimulation(DifficultySelect.Difficulty difficulty, int width, int height) {
+        this(difficulty, width, height, new Random());
+    }
+
+    // Pass a seeded Random for reproducible runs
+    public GameSimulation(DifficultySelect.Difficulty difficulty, int width, int height, Random rand) {
+        this(difficulty, width, height, rand, GameLoop.TICKS_PER_SECOND);
+    }
+
+    public GameSimulation(DifficultySelect.Difficulty difficulty, int width, int height, Random rand,
+                          int ticksPerSecond) {
+        if (ticksPerSecond <= 0) {
+            throw new IllegalArgumentException("ticksPerSecond must be positive: " + ticksPerSecond);
+        }
+        this.startDifficulty = difficulty;
+        this.width = width;
+        this.height = height;
+        this.rand = rand;
+        this.ticksPerSecond = ticksPerSecond;
+        this.stepScale = (double) GameLoop.TICKS_PER_SECOND / ticksPerSecond;
+        this.numbers = new FallingNumberStore(width);
+        timeLimit = getTimeLimit(difficulty);
+        reset();
+    }
+
+    /**
+     * Start over as a new game on the same board: no numbers, the catcher in
+     * the middle, level 1 and a full timer. Keeps the store's arrays, so
+     * benchmarks can replay a game without allocating a new simulation.
+     */
+    public void reset() {
+        difficulty = startDifficulty;
+        playerX = width / 2;
+        playerPrevX = playerX;
+        playerY = height - 80;
+        playerVelocityX = 0;
+        leftPressed = false;
+        rightPressed = false;
+        numbers.clear();
+
+        currentEquation = new MathEquation(1, difficulty, rand);
+        equationNumber++;
+        score = 0;
+        level = 1;
+        spawnCounter = 0;
+        correctAnswersCount = 0;
+        wrongAnswersCount = 0;
+        gameOver = false;
+        tickCount = 0;
+        timeRemaining = timeLimit;
+        tickCounter = 0;
+    }
+
+    public void setEventListener(EventListener listener) {
+        this.listener = listener != null ? listener : NO_LISTENER;
+    }
+
+    public void setInput(boolean left, boolean right) {
+        this.leftPressed = left;
+        this.rightPressed = right;
+    }
+
+    public void setLeftPressed(boolean pressed) {
+        this.leftPressed = pressed;
+    }
+
+    public void setRightPressed(boolean pressed) {
+        this.rightPressed = pressed;
+    }
+
+    public void tick() {
+        if (gameOver) {
+            return;
+        }
+        tickCount++;
+
+        updatePlayer();
+
+        // Update timer (count down once per second of game time)
+        tickCounter++;
+        if (tickCounter >= ticksPerSecond) {
+            tickCounter = 0;
+            timeRemaining--;
+
+            if (timeRemaining == 10) {
+                listener.onEvent(Event.TIMER_WARNING);
+            }
+
+            // Check if time ran out
+            if (timeRemaining <= 0) {
+                timeRemaining = 0;
+                endGame();
+                return;
+            }
+        }
+
+        // Spawn falling numbers (rate based on difficulty)
+        spawnCounter += stepScale;
+        int spawnInterval = getSpawnInterval();
+        if (spawnCounter >= spawnInterval) {
+            // Keep the overshoot, or longer ticks would stretch the interval to a multiple of stepScale
+            spawnCounter -= spawnInterval;
+            spawnNumber();
+        }
+
+        // Update falling numbers
+        numbers.moveAll();
+
+        catchNumbers();
+        if (gameOver) {
+            return;
+        }
+
+        // Remove off-screen numbers
+        // Walk backwards: remove() swaps the last (already visited) number into slot i
+        for (int i = numbers.size() - 1; i >= 0; i--) {
+            if (numbers.getY(i) > height) {
+                numbers.remove(i);
+            }
+        }
+    }
+
+    // Broad phase: only numbers in the columns the catcher swept over this tick can touch it
+    private void catchNumbers() {
+        int px0 = (int) playerPrevX;
+        int px1 = (int) playerX;
+        int py = (int) playerY;
+        int firstColumn = numbers.columnOf(Math.min(px0, px1) - NUMBER_SIZE + 1);
+        int lastColumn = numbers.columnOf(Math.max(px0, px1) + PLAYER_WIDTH - 1);
+
+        for (int c = firstColumn; c <= lastColumn; c++) {
+            for (int n = numbers.getColumnSize(c) - 1; n >= 0; n--) {
+                int i = numbers.getColumnEntity(c, n);
+                int nx = numbers.getX(i);
+                if (!Collision.sweptIntersects(nx, (int) numbers.getPrevY(i), nx, (int) numbers.getY(i),
+                        NUMBER_SIZE, NUMBER_SIZE, px0, py, px1, py, PLAYER_WIDTH, PLAYER_HEIGHT)) {
+                    continue;
+                }
+
+                int value = numbers.getValue(i);
+                listener.onEvent(Event.CATCH);
+                numbers.remove(i);
+                handleNumberCatch(value);
+                if (gameOver) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void updatePlayer() {
+        playerPrevX = playerX;
+
+        // Velocity is in pixels per tick, so a longer tick accelerates by the square
+        double acceleration = PLAYER_ACCELERATION * stepScale * stepScale;
+        double maxSpeed = PLAYER_MAX_SPEED * stepScale;
+
+        if (leftPressed) {
+            playerVelocityX -= acceleration;
+        }
+        if (rightPressed) {
+            playerVelocityX += acceleration;
+        }
+
+        // Apply friction
+        if (!leftPressed && !rightPressed) {
+            playerVelocityX *= stepScale == 1 ? PLAYER_FRICTION : Math.pow(PLAYER_FRICTION, stepScale);
+        }
+
+        // Clamp velocity
+        playerVelocityX = Math.max(-maxSpeed, Math.min(maxSpeed, playerVelocityX));
+
+        playerX += playerVelocityX;
+
+        // Boundary check
+        if (playerX < 0) {
+            playerX = 0;
+            playerVelocityX = 0;
+        }
+        if (playerX > width - PLAYER_WIDTH) {
+            playerX = width - PLAYER_WIDTH;
+            playerVelocityX = 0;
+        }
+    }
+
+    private void spawnNumber() {
+        int x = rand.nextInt(width - 50);
+        int value;
+
+        // 40% chance correct answer, 60% random numbers
+        if (rand.nextDouble() < 0.4) {
+            value = currentEquation.getAnswer();
+        } else {
+            value = rand.nextInt(50) + 1;
+            // Avoid spawning the correct answer
+            if (value == currentEquation.getAnswer()) {
+                value += rand.nextInt(10) + 1;
+            }
+        }
+
+        spawnNumber(x, value);
+    }
+
+    /**
+     * Drop a number at x from the top of the screen, falling at the speed of
+     * the current level. Used by the spawner and by scripted scenarios.
+     */
+    public void spawnNumber(int x, int value) {
+        spawnNumber(x, 0, value);
+    }
+
+    // Same, but starting part-way down the screen (scripted scenarios, benchmarks)
+    public void spawnNumber(int x, double y, int value) {
+        numbers.add(x, y, value, getFallSpeed(level, difficulty) * stepScale);
+    }
+
+    private void handleNumberCatch(int value) {
+        if (value == currentEquation.getAnswer()) {
+            // Correct answer: add points and increment count
+            score += 10 * level;
+            correctAnswersCount++;
+            listener.onEvent(Event.CORRECT);
+
+            // Level up every 50 points
+            int newLevel = (score / 50) + 1;
+            if (newLevel > level) {
+                level = newLevel;
+                listener.onEvent(Event.LEVEL_UP);
+            }
+
+            // Progress through difficulties based on correct answers:
+            // Easy: 20 correct answers -> Medium
+            // Medium: 30 correct answers -> Hard
+            // Hard: 40 correct answers -> Game ends
+            if (difficulty == DifficultySelect.Difficulty.EASY && correctAnswersCount >= 20) {
+                difficulty = DifficultySelect.Difficulty.MEDIUM;
+                correctAnswersCount = 0; // Reset count for next difficulty
+                // Keep wrong answers count - it doesn't reset
+            } else if (difficulty == DifficultySelect.Difficulty.MEDIUM && correctAnswersCount >= 30) {
+                difficulty = DifficultySelect.Difficulty.HARD;
+                correctAnswersCount = 0; // Reset count for next difficulty
+                // Keep wrong answers count - it doesn't reset
+            } else if (difficulty == DifficultySelect.Difficulty.HARD && correctAnswersCount >= 40) {
+                // Complete all difficulties - game ends
+                endGame();
+                return;
+            }
+
+            currentEquation = new MathEquation(level, difficulty, rand);
+            equationNumber++;
+        } else {
+            // Wrong answer: increment wrong answers count
+            wrongAnswersCount++;
+            listener.onEvent(Event.WRONG);
+
+            // Game over after 3 wrong answers
+            if (wrongAnswersCount >= MAX_LIVES) {
+                endGame();
+            }
+        }
+    }
+
+    private void endGame() {
+        gameOver = true;
+        listener.onEvent(Event.GAME_OVER);
+    }
+
+    private int getSpawnInterval() {
+        int baseSpawnRate;
+        switch (difficulty) {
+            case EASY:
+                baseSpawnRate = 40; // Slower spawn
+                break;
+            case MEDIUM:
+                baseSpawnRate = 30;
+                break;
+            case HARD:
+                baseSpawnRate = 20; // Faster spawn
+                break;
+            default:
+                baseSpawnRate = 30;
+        }
+        return Math.max(baseSpawnRate - level * 2, 10);
+    }
+
+    // Fall speed in whole pixels per tick at GameLoop.TICKS_PER_SECOND
+    public static double getFallSpeed(int level, DifficultySelect.Difficulty difficulty) {
+        double baseSpeed;
+        switch (difficulty) {
+            case EASY:
+                baseSpeed = 1.5; // Slower
+                break;
+            case MEDIUM:
+                baseSpeed = 2.0;
+                break;
+            case HARD:
+                baseSpeed = 3.0; // Faster
+                break;
+            default:
+                baseSpeed = 2.0;
+        }
+        // Numbers used to move in whole pixels, dropping the half step of odd levels; keep that speed
+        return Math.floor(baseSpeed + (level * 0.5));
+    }
+
+    public static int getTimeLimit(DifficultySelect.Difficulty difficulty) {
+        switch (difficulty) {
+            case EASY:
+                return 120; // 2 minutes
+            case MEDIUM:
+                return 90; // 1.5 minutes
+            case HARD:
+                return 60; // 1 minute
+            default:
+                return 90;
+        }
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    // alpha blends between the previous and the current tick (0 = previous, 1 = current)
+    public double getPlayerX(double alpha) {
+        return playerPrevX + (playerX - playerPrevX) * alpha;
+    }
+
+    // Farthest the player can move in one tick
+    public double getPlayerMaxStep() {
+        return PLAYER_MAX_SPEED * stepScale;
+    }
+
+    public double getPlayerY() {
+        return playerY;
+    }
+
+    // The live falling numbers; the view iterates this directly when drawing
+    public FallingNumberStore getNumbers() {
+        return numbers;
+    }
+
+    public MathEquation getCurrentEquation() {
+        return currentEquation;
+    }
+
+    // Changes whenever a new equation is dealt, so views can tell without comparing text
+    public int getEquationNumber() {
+        return equationNumber;
+    }
+
+    public DifficultySelect.Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getLives() {
+        return MAX_LIVES - wrongAnswersCount;
+    }
+
+    public int getTimeLimit() {
+        return timeLimit;
+    }
+
+    public int getTimeRemaining() {
+        return timeRemaining;
+    }
+
+    public int getTicksPerSecond() {
+        return ticksPerSecond;
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+}
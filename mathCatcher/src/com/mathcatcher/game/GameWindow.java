@@ -1,5 +1,6 @@
 package com.mathcatcher.game;
 
+import com.mathcatcher.render.BackgroundPanel;
 import com.mathcatcher.utils.ResolutionManager;
 
 import javax.swing.*;
@@ -54,25 +55,8 @@ public class GameWindow extends JFrame {
     }
 
     private void createMenuView() {
-        // Create a background panel with game-like visuals
-        menuContainer = new JPanel(new BorderLayout()) {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-                // Sky gradient background (similar to game)
-                GradientPaint sky = new GradientPaint(0, 0, new Color(135, 206, 250),
-                        0, getHeight(), new Color(176, 224, 230));
-                g2d.setPaint(sky);
-                g2d.fillRect(0, 0, getWidth(), getHeight());
-
-                // Ground
-                g2d.setColor(new Color(34, 139, 34));
-                g2d.fillRect(0, getHeight() - 50, getWidth(), 50);
-            }
-        };
+        // Panel with the shared game background
+        menuContainer = new BackgroundPanel(new BorderLayout());
         menuContainer.setPreferredSize(ResolutionManager.getCurrentResolution());
 
         // Create and add menu
@@ -86,25 +70,8 @@ public class GameWindow extends JFrame {
     }
 
     private void createDifficultyView() {
-        // Create a background panel with game-like visuals
-        difficultyContainer = new JPanel(new BorderLayout()) {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-                // Sky gradient background (similar to game)
-                GradientPaint sky = new GradientPaint(0, 0, new Color(135, 206, 250),
-                        0, getHeight(), new Color(176, 224, 230));
-                g2d.setPaint(sky);
-                g2d.fillRect(0, 0, getWidth(), getHeight());
-
-                // Ground
-                g2d.setColor(new Color(34, 139, 34));
-                g2d.fillRect(0, getHeight() - 50, getWidth(), 50);
-            }
-        };
+        // Panel with the shared game background
+        difficultyContainer = new BackgroundPanel(new BorderLayout());
         difficultyContainer.setPreferredSize(ResolutionManager.getCurrentResolution());
 
         // Create and add difficulty selection
@@ -172,25 +139,8 @@ public class GameWindow extends JFrame {
     }
 
     private void createLeaderboardView() {
-        // Create a background panel with game-like visuals
-        leaderboardContainer = new JPanel(new BorderLayout()) {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-                // Sky gradient background (similar to game)
-                GradientPaint sky = new GradientPaint(0, 0, new Color(135, 206, 250),
-                        0, getHeight(), new Color(176, 224, 230));
-                g2d.setPaint(sky);
-                g2d.fillRect(0, 0, getWidth(), getHeight());
-
-                // Ground
-                g2d.setColor(new Color(34, 139, 34));
-                g2d.fillRect(0, getHeight() - 50, getWidth(), 50);
-            }
-        };
+        // Panel with the shared game background
+        leaderboardContainer = new BackgroundPanel(new BorderLayout());
         leaderboardContainer.setPreferredSize(ResolutionManager.getCurrentResolution());
 
         // Create and add leaderboard
@@ -203,48 +153,14 @@ public class GameWindow extends JFrame {
     }
 
     private void createGameOverView() {
-        // Create a background panel with game-like visuals
-        gameOverContainer = new JPanel(new BorderLayout()) {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-                // Sky gradient background (similar to game)
-                GradientPaint sky = new GradientPaint(0, 0, new Color(135, 206, 250),
-                        0, getHeight(), new Color(176, 224, 230));
-                g2d.setPaint(sky);
-                g2d.fillRect(0, 0, getWidth(), getHeight());
-
-                // Ground
-                g2d.setColor(new Color(34, 139, 34));
-                g2d.fillRect(0, getHeight() - 50, getWidth(), 50);
-            }
-        };
+        // Panel with the shared game background
+        gameOverContainer = new BackgroundPanel(new BorderLayout());
         gameOverContainer.setPreferredSize(ResolutionManager.getCurrentResolution());
     }
 
     private void createSettingsView() {
-        // Create a background panel with game-like visuals
-        settingsContainer = new JPanel(new BorderLayout()) {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-                // Sky gradient background (similar to game)
-                GradientPaint sky = new GradientPaint(0, 0, new Color(135, 206, 250),
-                        0, getHeight(), new Color(176, 224, 230));
-                g2d.setPaint(sky);
-                g2d.fillRect(0, 0, getWidth(), getHeight());
-
-                // Ground
-                g2d.setColor(new Color(34, 139, 34));
-                g2d.fillRect(0, getHeight() - 50, getWidth(), 50);
-            }
-        };
+        // Panel with the shared game background
+        settingsContainer = new BackgroundPanel(new BorderLayout());
         settingsContainer.setPreferredSize(ResolutionManager.getCurrentResolution());
 
         // Create and add settings panel
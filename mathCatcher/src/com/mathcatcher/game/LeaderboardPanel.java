@@ -1,14 +1,45 @@
 package com.mathcatcher.game;
 
+import com.mathcatcher.render.QualityTier;
+import com.mathcatcher.render.Theme;
+import com.mathcatcher.render.TitlePanel;
 import com.mathcatcher.utils.ScoreManager;
 import javax.swing.*;
 import java.awt.*;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.time.temporal.WeekFields;
 import java.util.List;
+import java.util.Locale;
 
 public class LeaderboardPanel extends JPanel {
+    // Back button gradient, normal and hovered
+    private static final Color BACK_FROM = new Color(100, 116, 139);
+    private static final Color BACK_TO = new Color(71, 85, 105);
+    private static final Color BACK_HOVER_FROM = new Color(71, 85, 105);
+    private static final Color BACK_HOVER_TO = new Color(51, 65, 85);
+    private static final Color THUMB_COLOR = new Color(255, 255, 255, 100);
+    private static final Color TRACK_COLOR = new Color(0, 0, 0, 0);
+    private static final Font EMPTY_ICON_FONT = new Font("SansSerif", Font.PLAIN, 64);
+    private static final Color EMPTY_ICON_COLOR = new Color(255, 255, 255, 51); // opacity-20
+    private static final Font EMPTY_TEXT_FONT = new Font("SansSerif", Font.PLAIN, 16);
+    private static final Color EMPTY_TEXT_COLOR = new Color(156, 163, 175); // gray-400
+
+    // Which games count: all of them, this week's (classes reset weekly) or today's
+    private enum Period {
+        ALL_TIME("All Time"), THIS_WEEK("This Week"), TODAY("Today");
+
+        private final String label;
+
+        Period(String label) {
+            this.label = label;
+        }
+    }
+
     private DifficultySelect.Difficulty selectedDifficulty;
     private boolean showAll; // Flag to show all difficulties
+    private Period period = Period.ALL_TIME;
     private JPanel scoresPanel;
     private JPanel container;
 
@@ -25,19 +56,18 @@ public class LeaderboardPanel extends JPanel {
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
                 Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                QualityTier.current().applyHints(g2d);
 
                 // Semi-transparent black background with shadow
-                g2d.setColor(new Color(0, 0, 0, 100));
+                g2d.setColor(Theme.color(0, 0, 0, 100));
                 g2d.fillRoundRect(4, 4, getWidth(), getHeight(), 40, 40);
                 
-                g2d.setColor(new Color(0, 0, 0, 90));
+                g2d.setColor(Theme.color(0, 0, 0, 90));
                 g2d.fillRoundRect(0, 0, getWidth(), getHeight(), 40, 40); // rounded-2xl
 
                 // Enhanced border
-                g2d.setStroke(new BasicStroke(2));
-                g2d.setColor(new Color(255, 255, 255, 40));
+                g2d.setStroke(Theme.stroke(2));
+                g2d.setColor(Theme.color(255, 255, 255, 40));
                 g2d.drawRoundRect(1, 1, getWidth() - 2, getHeight() - 2, 40, 40);
             }
         };
@@ -46,64 +76,56 @@ public class LeaderboardPanel extends JPanel {
 
         // ===== Back Button =====
         GradientButton backButton = new GradientButton("← Back",
-            new Color(100, 116, 139), new Color(71, 85, 105), // Slate gray gradient (same as difficulty)
-            new Color(71, 85, 105), new Color(51, 65, 85)); // Darker on hover
+            BACK_FROM, BACK_TO, // Slate gray gradient (same as difficulty)
+            BACK_HOVER_FROM, BACK_HOVER_TO); // Darker on hover
         backButton.addActionListener(e -> onBack.run());
 
         // ===== Title Section =====
-        JPanel titlePanel = new JPanel() {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        JPanel titlePanel = new TitlePanel((g2d, width, height) -> {
+            // Draw gradient text "Leaderboard" (same style as "Math Catchers")
+            Font titleFont = Theme.font("SansSerif", Font.BOLD, 64);
+            String title = "Leaderboard";
+            
+            // Create TextLayout for gradient text rendering
+            java.awt.font.TextLayout textLayout = new java.awt.font.TextLayout(
+                title, titleFont, g2d.getFontRenderContext()
+            );
+            
+            FontMetrics fm = g2d.getFontMetrics(titleFont);
+            int textWidth = fm.stringWidth(title);
+            int textHeight = fm.getHeight();
+            int x = (width - textWidth) / 2;
+            int y = (height - textHeight) / 2 + fm.getAscent() - 20;
 
-                // Draw gradient text "Leaderboard" (same style as "Math Catchers")
-                Font titleFont = new Font("SansSerif", Font.BOLD, 64);
-                String title = "Leaderboard";
-                
-                // Create TextLayout for gradient text rendering
-                java.awt.font.TextLayout textLayout = new java.awt.font.TextLayout(
-                    title, titleFont, g2d.getFontRenderContext()
-                );
-                
-                FontMetrics fm = g2d.getFontMetrics(titleFont);
-                int textWidth = fm.stringWidth(title);
-                int textHeight = fm.getHeight();
-                int x = (getWidth() - textWidth) / 2;
-                int y = (getHeight() - textHeight) / 2 + fm.getAscent() - 20;
-
-                // Create gradient: yellow-400 -> pink-500 -> purple-500 (same as Math Catchers)
-                Color yellow = new Color(255, 230, 0);    // yellow-400
-                Color pink = new Color(236, 72, 153);     // pink-500
-                Color purple = new Color(168, 85, 247);   // purple-500
-                
-                // Use LinearGradientPaint for smooth gradient
-                java.awt.LinearGradientPaint gradient = new java.awt.LinearGradientPaint(
-                    x, 0, x + textWidth, 0,
-                    new float[]{0.0f, 0.5f, 1.0f},
-                    new Color[]{yellow, pink, purple}
-                );
-                
-                // Draw text as shape with gradient fill
-                java.awt.Shape textShape = textLayout.getOutline(
-                    java.awt.geom.AffineTransform.getTranslateInstance(x, y)
-                );
-                g2d.setPaint(gradient);
-                g2d.fill(textShape);
-
-                // Draw subtitle "Top 10"
-                Font subtitleFont = new Font("SansSerif", Font.PLAIN, 16);
-                g2d.setFont(subtitleFont);
-                g2d.setColor(new Color(209, 213, 219)); // gray-300
-                String subtitle = "Top 10";
-                FontMetrics subFm = g2d.getFontMetrics();
-                int subX = (getWidth() - subFm.stringWidth(subtitle)) / 2;
-                int subY = y + 25;
-                g2d.drawString(subtitle, subX, subY);
-            }
-        };
+            // Create gradient: yellow-400 -> pink-500 -> purple-500 (same as Math Catchers)
+            Color yellow = Theme.color(255, 230, 0);    // yellow-400
+            Color pink = Theme.color(236, 72, 153);     // pink-500
+            Color purple = Theme.color(168, 85, 247);   // purple-500
+            
+            // Use LinearGradientPaint for smooth gradient
+            java.awt.LinearGradientPaint gradient = new java.awt.LinearGradientPaint(
+                x, 0, x + textWidth, 0,
+                new float[]{0.0f, 0.5f, 1.0f},
+                new Color[]{yellow, pink, purple}
+            );
+            
+            // Draw text as shape with gradient fill
+            java.awt.Shape textShape = textLayout.getOutline(
+                java.awt.geom.AffineTransform.getTranslateInstance(x, y)
+            );
+            g2d.setPaint(gradient);
+            g2d.fill(textShape);
+
+            // Draw subtitle "Top 10"
+            Font subtitleFont = Theme.font("SansSerif", Font.PLAIN, 16);
+            g2d.setFont(subtitleFont);
+            g2d.setColor(Theme.color(209, 213, 219)); // gray-300
+            String subtitle = "Top 10";
+            FontMetrics subFm = g2d.getFontMetrics();
+            int subX = (width - subFm.stringWidth(subtitle)) / 2;
+            int subY = y + 25;
+            g2d.drawString(subtitle, subX, subY);
+        });
         titlePanel.setOpaque(false);
         titlePanel.setPreferredSize(new Dimension(0, 140));
         titlePanel.setMinimumSize(new Dimension(0, 140));
@@ -112,10 +134,10 @@ public class LeaderboardPanel extends JPanel {
         // ===== Difficulty Filter Buttons =====
         JPanel filterPanel = new JPanel(new GridLayout(1, 4, 8, 0)); // Changed to 4 columns for All button
         filterPanel.setOpaque(false);
-        filterPanel.setBorder(BorderFactory.createEmptyBorder(4, 0, 24, 0)); // Very small top padding to be close to "Top 10"
-        filterPanel.setPreferredSize(new Dimension(0, 58)); // Fixed height to ensure visibility (updated for bigger buttons)
-        filterPanel.setMinimumSize(new Dimension(0, 58));
-        filterPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 58));
+        filterPanel.setBorder(BorderFactory.createEmptyBorder(4, 0, 8, 0)); // Very small top padding to be close to "Top 10"
+        filterPanel.setPreferredSize(new Dimension(0, 42)); // Fixed 42 px: top row of the two-row filter, with the period buttons below
+        filterPanel.setMinimumSize(new Dimension(0, 42));
+        filterPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 42));
 
         // All button
         DifficultyFilterButton allButton = new DifficultyFilterButton("All", showAll);
@@ -157,6 +179,29 @@ public class LeaderboardPanel extends JPanel {
         filterPanel.add(mediumButton);
         filterPanel.add(hardButton);
 
+        // ===== Period Filter Buttons =====
+        JPanel periodPanel = new JPanel(new GridLayout(1, Period.values().length, 8, 0));
+        periodPanel.setOpaque(false);
+        periodPanel.setBorder(BorderFactory.createEmptyBorder(0, 0, 24, 0));
+        periodPanel.setPreferredSize(new Dimension(0, 54));
+        periodPanel.setMinimumSize(new Dimension(0, 54));
+        periodPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 54));
+
+        for (Period buttonPeriod : Period.values()) {
+            DifficultyFilterButton periodButton = new DifficultyFilterButton(buttonPeriod.label, period == buttonPeriod);
+            periodButton.addActionListener(e -> {
+                period = buttonPeriod;
+                updatePeriodButtons(periodPanel);
+                refreshScores();
+            });
+            periodPanel.add(periodButton);
+        }
+
+        JPanel filtersPanel = new JPanel(new BorderLayout());
+        filtersPanel.setOpaque(false);
+        filtersPanel.add(filterPanel, BorderLayout.NORTH);
+        filtersPanel.add(periodPanel, BorderLayout.SOUTH);
+
         // ===== Scores Panel =====
         scoresPanel = new JPanel();
         scoresPanel.setLayout(new BoxLayout(scoresPanel, BoxLayout.Y_AXIS));
@@ -169,8 +214,8 @@ public class LeaderboardPanel extends JPanel {
         scrollPane.getVerticalScrollBar().setUI(new javax.swing.plaf.basic.BasicScrollBarUI() {
             @Override
             protected void configureScrollBarColors() {
-                this.thumbColor = new Color(255, 255, 255, 100);
-                this.trackColor = new Color(0, 0, 0, 0);
+                this.thumbColor = THUMB_COLOR;
+                this.trackColor = TRACK_COLOR;
             }
             
             @Override
@@ -210,7 +255,7 @@ public class LeaderboardPanel extends JPanel {
         // Create content panel to hold filter and scores
         JPanel contentPanel = new JPanel(new BorderLayout());
         contentPanel.setOpaque(false);
-        contentPanel.add(filterPanel, BorderLayout.NORTH);
+        contentPanel.add(filtersPanel, BorderLayout.NORTH);
         contentPanel.add(scrollPane, BorderLayout.CENTER);
 
         container.add(topPanel, BorderLayout.NORTH);
@@ -240,12 +285,24 @@ public class LeaderboardPanel extends JPanel {
         }
     }
 
+    private void updatePeriodButtons(JPanel periodPanel) {
+        Component[] components = periodPanel.getComponents();
+        for (int i = 0; i < components.length; i++) {
+            ((DifficultyFilterButton) components[i]).setSelected(Period.values()[i] == period);
+        }
+    }
+
     private void refreshScores() {
         scoresPanel.removeAll();
         
         // Get scores based on filter selection
         List<ScoreManager.ScoreEntry> scores;
-        if (showAll) {
+        if (period != Period.ALL_TIME) {
+            LocalDate today = LocalDate.now();
+            LocalDate from = period == Period.TODAY ? today
+                    : today.with(TemporalAdjusters.previousOrSame(WeekFields.of(Locale.getDefault()).getFirstDayOfWeek()));
+            scores = ScoreManager.getLeaderboard(showAll ? null : selectedDifficulty, from, today);
+        } else if (showAll) {
             scores = ScoreManager.getAllScores();
         } else {
             scores = ScoreManager.getLeaderboard(selectedDifficulty);
@@ -259,13 +316,14 @@ public class LeaderboardPanel extends JPanel {
             emptyPanel.setBorder(BorderFactory.createEmptyBorder(48, 0, 48, 0));
             
             JLabel trophyIcon = new JLabel("🏆");
-            trophyIcon.setFont(new Font("SansSerif", Font.PLAIN, 64));
+            trophyIcon.setFont(EMPTY_ICON_FONT);
             trophyIcon.setAlignmentX(Component.CENTER_ALIGNMENT);
-            trophyIcon.setForeground(new Color(255, 255, 255, 51)); // opacity-20
+            trophyIcon.setForeground(EMPTY_ICON_COLOR); // opacity-20
             
-            JLabel emptyText = new JLabel("No scores yet. Be the first to play!");
-            emptyText.setFont(new Font("SansSerif", Font.PLAIN, 16));
-            emptyText.setForeground(new Color(156, 163, 175)); // gray-400
+            String when = period == Period.TODAY ? " today" : period == Period.THIS_WEEK ? " this week" : "";
+            JLabel emptyText = new JLabel("No scores" + when + " yet. Be the first to play!");
+            emptyText.setFont(EMPTY_TEXT_FONT);
+            emptyText.setForeground(EMPTY_TEXT_COLOR); // gray-400
             emptyText.setAlignmentX(Component.CENTER_ALIGNMENT);
             emptyText.setBorder(BorderFactory.createEmptyBorder(16, 0, 0, 0));
             
@@ -288,6 +346,7 @@ public class LeaderboardPanel extends JPanel {
 
     // Difficulty filter button
     private static class DifficultyFilterButton extends JButton {
+        private static final Font FONT = new Font("SansSerif", Font.BOLD, 16);
         private boolean isSelected;
 
         public DifficultyFilterButton(String text, boolean selected) {
@@ -296,7 +355,7 @@ public class LeaderboardPanel extends JPanel {
             setFocusPainted(false);
             setContentAreaFilled(false);
             setBorderPainted(false);
-            setFont(new Font("SansSerif", Font.BOLD, 16)); // Slightly bigger font
+            setFont(FONT); // Slightly bigger font
             setPreferredSize(new Dimension(0, 48)); // Slightly bigger filter buttons
             setMaximumSize(new Dimension(Integer.MAX_VALUE, 48));
             setMinimumSize(new Dimension(0, 48));
@@ -310,27 +369,26 @@ public class LeaderboardPanel extends JPanel {
         @Override
         protected void paintComponent(Graphics g) {
             Graphics2D g2d = (Graphics2D) g;
-            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-            g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            QualityTier tier = QualityTier.current();
+            tier.applyHints(g2d);
 
             int width = getWidth();
             int height = getHeight();
 
             if (isSelected) {
                 // Selected: gradient purple to pink
-                GradientPaint gradient = new GradientPaint(
-                    0, 0, new Color(168, 85, 247), // purple-500
-                    width, height, new Color(219, 39, 119) // pink-600
+                Paint gradient = tier.gradient(
+                    0, 0, Theme.color(168, 85, 247), // purple-500
+                    width, height, Theme.color(219, 39, 119) // pink-600
                 );
                 g2d.setPaint(gradient);
                 g2d.fillRoundRect(0, 0, width, height, 12, 12); // Smaller rounded corners
                 g2d.setColor(Color.WHITE);
             } else {
                 // Not selected: white/10 background
-                g2d.setColor(new Color(255, 255, 255, 25));
+                g2d.setColor(Theme.color(255, 255, 255, 25));
                 g2d.fillRoundRect(0, 0, width, height, 12, 12); // Smaller rounded corners
-                g2d.setColor(new Color(209, 213, 219)); // gray-300
+                g2d.setColor(Theme.color(209, 213, 219)); // gray-300
             }
 
             // Draw text
@@ -359,28 +417,27 @@ public class LeaderboardPanel extends JPanel {
         @Override
         protected void paintComponent(Graphics g) {
             Graphics2D g2d = (Graphics2D) g;
-            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-            g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            QualityTier tier = QualityTier.current();
+            tier.applyHints(g2d);
 
             int width = getWidth();
             int height = getHeight();
 
             // Background (top 3 get gradient, others get simple background)
             if (rank < 3) {
-                GradientPaint gradient = new GradientPaint(
-                    0, 0, new Color(255, 255, 255, 51), // white/20
-                    width, height, new Color(255, 255, 255, 25) // white/10
+                Paint gradient = tier.gradient(
+                    0, 0, Theme.color(255, 255, 255, 51), // white/20
+                    width, height, Theme.color(255, 255, 255, 25) // white/10
                 );
                 g2d.setPaint(gradient);
                 g2d.fillRoundRect(0, 0, width, height, 12, 12); // More rounded
                 
                 // Border
-                g2d.setStroke(new BasicStroke(2));
-                g2d.setColor(new Color(255, 255, 255, 60));
+                g2d.setStroke(Theme.stroke(2));
+                g2d.setColor(Theme.color(255, 255, 255, 60));
                 g2d.drawRoundRect(0, 0, width - 1, height - 1, 12, 12);
             } else {
-                g2d.setColor(new Color(255, 255, 255, 13)); // white/5
+                g2d.setColor(Theme.color(255, 255, 255, 13)); // white/5
                 g2d.fillRoundRect(0, 0, width, height, 12, 12);
             }
 
@@ -392,28 +449,28 @@ public class LeaderboardPanel extends JPanel {
 
             if (rank == 0) {
                 rankText = "🏆";
-                rankColor = new Color(251, 191, 36); // yellow-400
+                rankColor = Theme.color(251, 191, 36); // yellow-400
             } else if (rank == 1) {
                 rankText = "🥈";
-                rankColor = new Color(209, 213, 219); // gray-300
+                rankColor = Theme.color(209, 213, 219); // gray-300
             } else if (rank == 2) {
                 rankText = "🥉";
-                rankColor = new Color(251, 146, 60); // orange-400
+                rankColor = Theme.color(251, 146, 60); // orange-400
             } else {
                 rankText = "#" + (rank + 1);
-                rankColor = new Color(156, 163, 175); // gray-400
+                rankColor = Theme.color(156, 163, 175); // gray-400
             }
 
             if (rank < 3) {
                 // Icon for top 3 - larger
-                Font iconFont = new Font("SansSerif", Font.PLAIN, 32);
+                Font iconFont = Theme.font("SansSerif", Font.PLAIN, 32);
                 g2d.setFont(iconFont);
                 FontMetrics iconFm = g2d.getFontMetrics();
                 int iconTextY = iconY + iconFm.getAscent() / 2;
                 g2d.drawString(rankText, iconX, iconTextY);
             } else {
                 // Number for others
-                g2d.setFont(new Font("SansSerif", Font.BOLD, 14));
+                g2d.setFont(Theme.font("SansSerif", Font.BOLD, 14));
                 g2d.setColor(rankColor);
                 FontMetrics fm = g2d.getFontMetrics();
                 int textY = iconY + fm.getAscent() / 2;
@@ -427,14 +484,14 @@ public class LeaderboardPanel extends JPanel {
             String timeStr = timeFormat.format(entry.getDate());
 
             int textX = iconX + 40;
-            g2d.setFont(new Font("SansSerif", Font.PLAIN, 14));
+            g2d.setFont(Theme.font("SansSerif", Font.PLAIN, 14));
             g2d.setColor(Color.WHITE);
             FontMetrics fm = g2d.getFontMetrics();
             int dateY = iconY - 8;
             g2d.drawString(dateStr, textX, dateY);
 
-            g2d.setColor(new Color(156, 163, 175)); // gray-400
-            g2d.setFont(new Font("SansSerif", Font.PLAIN, 12));
+            g2d.setColor(Theme.color(156, 163, 175)); // gray-400
+            g2d.setFont(Theme.font("SansSerif", Font.PLAIN, 12));
             fm = g2d.getFontMetrics();
             int timeY = iconY + fm.getAscent() + 4;
             g2d.drawString(timeStr, textX, timeY);
@@ -447,16 +504,16 @@ public class LeaderboardPanel extends JPanel {
             Color badgeColor;
             switch (entry.getDifficulty()) {
                 case EASY:
-                    badgeColor = new Color(34, 197, 94); // green
+                    badgeColor = Theme.color(34, 197, 94); // green
                     break;
                 case MEDIUM:
-                    badgeColor = new Color(234, 179, 8); // yellow
+                    badgeColor = Theme.color(234, 179, 8); // yellow
                     break;
                 case HARD:
-                    badgeColor = new Color(239, 68, 68); // red
+                    badgeColor = Theme.color(239, 68, 68); // red
                     break;
                 default:
-                    badgeColor = new Color(156, 163, 175); // gray
+                    badgeColor = Theme.color(156, 163, 175); // gray
             }
 
             // Badge background
@@ -467,7 +524,7 @@ public class LeaderboardPanel extends JPanel {
             g2d.fillRoundRect(badgeX, badgeY, badgeSize, badgeSize, 6, 6);
 
             // Badge letter
-            g2d.setFont(new Font("SansSerif", Font.BOLD, 14));
+            g2d.setFont(Theme.font("SansSerif", Font.BOLD, 14));
             g2d.setColor(Color.WHITE);
             fm = g2d.getFontMetrics();
             int badgeTextX = badgeX + (badgeSize - fm.stringWidth(diffStr)) / 2;
@@ -475,16 +532,16 @@ public class LeaderboardPanel extends JPanel {
             g2d.drawString(diffStr, badgeTextX, badgeTextY);
 
             // Score
-            g2d.setFont(new Font("SansSerif", Font.BOLD, 28)); // Larger score
-            g2d.setColor(new Color(251, 191, 36)); // yellow-400
+            g2d.setFont(Theme.font("SansSerif", Font.BOLD, 28)); // Larger score
+            g2d.setColor(Theme.color(251, 191, 36)); // yellow-400
             fm = g2d.getFontMetrics();
             String scoreStr = String.valueOf(entry.getScore());
             int scoreTextX = badgeX - fm.stringWidth(scoreStr) - 15;
             g2d.drawString(scoreStr, scoreTextX, iconY + fm.getAscent() / 2);
 
             // Difficulty full name below badge (optional, smaller)
-            g2d.setFont(new Font("SansSerif", Font.PLAIN, 11));
-            g2d.setColor(new Color(156, 163, 175)); // gray-400
+            g2d.setFont(Theme.font("SansSerif", Font.PLAIN, 11));
+            g2d.setColor(Theme.color(156, 163, 175)); // gray-400
             fm = g2d.getFontMetrics();
             String fullDiff = entry.getDifficulty().name().toLowerCase();
             fullDiff = fullDiff.substring(0, 1).toUpperCase() + fullDiff.substring(1);
@@ -495,6 +552,7 @@ public class LeaderboardPanel extends JPanel {
 
     // Simple gradient button for back button
     private static class GradientButton extends JButton {
+        private static final Font FONT = new Font("SansSerif", Font.BOLD, 12);
         private Color color1, color2;
         private Color hoverColor1, hoverColor2;
         private boolean isHovered = false;
@@ -510,7 +568,7 @@ public class LeaderboardPanel extends JPanel {
             setContentAreaFilled(false);
             setBorderPainted(false);
             setForeground(Color.WHITE);
-            setFont(new Font("SansSerif", Font.BOLD, 12)); // Smaller font for smaller button
+            setFont(FONT); // Smaller font for smaller button
             setMargin(new Insets(0, 0, 0, 0)); // Remove default button margins
 
             addMouseListener(new java.awt.event.MouseAdapter() {
@@ -544,9 +602,8 @@ public class LeaderboardPanel extends JPanel {
         @Override
         protected void paintComponent(Graphics g) {
             Graphics2D g2d = (Graphics2D) g;
-            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-            g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            QualityTier tier = QualityTier.current();
+            tier.applyHints(g2d);
 
             int width = getWidth();
             int height = getHeight();
@@ -557,7 +614,7 @@ public class LeaderboardPanel extends JPanel {
             if (c1.equals(c2)) {
                 g2d.setColor(c1);
             } else {
-                GradientPaint gradient = new GradientPaint(0, 0, c1, width, height, c2);
+                Paint gradient = tier.gradient(0, 0, c1, width, height, c2);
                 g2d.setPaint(gradient);
             }
             g2d.fillRoundRect(0, 0, width, height, 8, 8); // rounded-lg
@@ -1,5 +1,8 @@
 package com.mathcatcher.game;
 
+import com.mathcatcher.render.QualityTier;
+import com.mathcatcher.render.Theme;
+import com.mathcatcher.render.TitlePanel;
 import com.mathcatcher.utils.SoundManager;
 import javax.swing.*;
 import java.awt.*;
@@ -7,6 +10,25 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 
 public class MainMenu extends JPanel {
+    // Button gradients, normal and hovered
+    private static final Color START_FROM = new Color(34, 197, 94);
+    private static final Color START_TO = new Color(5, 150, 105);
+    private static final Color START_HOVER_FROM = new Color(22, 163, 74);
+    private static final Color START_HOVER_TO = new Color(5, 122, 85);
+    private static final Color LEADERBOARD_FROM = new Color(234, 179, 8);
+    private static final Color LEADERBOARD_TO = new Color(234, 88, 12);
+    private static final Color LEADERBOARD_HOVER_FROM = new Color(202, 138, 4);
+    private static final Color LEADERBOARD_HOVER_TO = new Color(194, 65, 12);
+    private static final Color SETTINGS_FROM = new Color(59, 130, 246);
+    private static final Color SETTINGS_TO = new Color(37, 99, 235);
+    private static final Color SETTINGS_HOVER_FROM = new Color(29, 78, 216);
+    private static final Color SETTINGS_HOVER_TO = new Color(30, 64, 175);
+    private static final Color QUIT_FROM = new Color(239, 68, 68);
+    private static final Color QUIT_TO = new Color(219, 39, 119);
+    private static final Color QUIT_HOVER_FROM = new Color(220, 38, 38);
+    private static final Color QUIT_HOVER_TO = new Color(190, 24, 93);
+    private static final Color FOOTER_COLOR = new Color(156, 163, 175); // gray-400
+    private static final Font FOOTER_FONT = new Font("SansSerif", Font.PLAIN, 12);
 
     public MainMenu(Runnable onStartGame, Runnable onQuitGame, Runnable onViewLeaderboard, Runnable onSettings) {
         setLayout(new BorderLayout());
@@ -19,21 +41,23 @@ public class MainMenu extends JPanel {
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
                 Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                QualityTier tier = QualityTier.current();
+                tier.applyHints(g2d);
 
                 // Semi-transparent black background (bg-black/30) with shadow effect
                 // Shadow
-                g2d.setColor(new Color(0, 0, 0, 100));
-                g2d.fillRoundRect(4, 4, getWidth(), getHeight(), 32, 32);
+                if (tier.isShadows()) {
+                    g2d.setColor(Theme.color(0, 0, 0, 100));
+                    g2d.fillRoundRect(4, 4, getWidth(), getHeight(), 32, 32);
+                }
                 
                 // Main background
-                g2d.setColor(new Color(0, 0, 0, 76)); // ~30% opacity
+                g2d.setColor(Theme.color(0, 0, 0, 76)); // ~30% opacity
                 g2d.fillRoundRect(0, 0, getWidth(), getHeight(), 32, 32); // rounded-2xl
 
                 // Enhanced border (border-white/10)
-                g2d.setStroke(new BasicStroke(1));
-                g2d.setColor(new Color(255, 255, 255, 25));
+                g2d.setStroke(Theme.stroke(1));
+                g2d.setColor(Theme.color(255, 255, 255, 25));
                 g2d.drawRoundRect(0, 0, getWidth() - 1, getHeight() - 1, 32, 32);
             }
         };
@@ -41,59 +65,51 @@ public class MainMenu extends JPanel {
         container.setBorder(BorderFactory.createEmptyBorder(40, 40, 40, 40));
 
         // ===== Title Section =====
-        JPanel titlePanel = new JPanel() {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        JPanel titlePanel = new TitlePanel((g2d, width, height) -> {
+            // Draw gradient text "Math Catchers"
+            Font titleFont = Theme.font("SansSerif", Font.BOLD, 64); // Normal size
+            String title = "Math Catchers";
+            
+            // Create TextLayout for gradient text rendering
+            java.awt.font.TextLayout textLayout = new java.awt.font.TextLayout(
+                title, titleFont, g2d.getFontRenderContext()
+            );
+            
+            FontMetrics fm = g2d.getFontMetrics(titleFont);
+            int textWidth = fm.stringWidth(title);
+            int textHeight = fm.getHeight();
+            int x = (width - textWidth) / 2;
+            int y = (height - textHeight) / 2 + fm.getAscent() - 20;
 
-                // Draw gradient text "Math Catchers"
-                Font titleFont = new Font("SansSerif", Font.BOLD, 64); // Normal size
-                String title = "Math Catchers";
-                
-                // Create TextLayout for gradient text rendering
-                java.awt.font.TextLayout textLayout = new java.awt.font.TextLayout(
-                    title, titleFont, g2d.getFontRenderContext()
-                );
-                
-                FontMetrics fm = g2d.getFontMetrics(titleFont);
-                int textWidth = fm.stringWidth(title);
-                int textHeight = fm.getHeight();
-                int x = (getWidth() - textWidth) / 2;
-                int y = (getHeight() - textHeight) / 2 + fm.getAscent() - 20;
-
-                // Create gradient: yellow-400 -> pink-500 -> purple-500
-                Color yellow = new Color(255, 230, 0);    // yellow-400
-                Color pink = new Color(236, 72, 153);     // pink-500
-                Color purple = new Color(168, 85, 247);   // purple-500
-                
-                // Use LinearGradientPaint for smooth gradient
-                java.awt.LinearGradientPaint gradient = new java.awt.LinearGradientPaint(
-                    x, 0, x + textWidth, 0,
-                    new float[]{0.0f, 0.5f, 1.0f},
-                    new Color[]{yellow, pink, purple}
-                );
-                
-                // Draw text as shape with gradient fill
-                java.awt.Shape textShape = textLayout.getOutline(
-                    java.awt.geom.AffineTransform.getTranslateInstance(x, y)
-                );
-                g2d.setPaint(gradient);
-                g2d.fill(textShape);
-
-                // Draw subtitle
-                Font subtitleFont = new Font("SansSerif", Font.PLAIN, 16);
-                g2d.setFont(subtitleFont);
-                g2d.setColor(new Color(209, 213, 219)); // gray-300
-                String subtitle = "Catch Numbers, Solve Equations!";
-                FontMetrics subFm = g2d.getFontMetrics();
-                int subX = (getWidth() - subFm.stringWidth(subtitle)) / 2;
-                int subY = y + 25;
-                g2d.drawString(subtitle, subX, subY);
-            }
-        };
+            // Create gradient: yellow-400 -> pink-500 -> purple-500
+            Color yellow = Theme.color(255, 230, 0);    // yellow-400
+            Color pink = Theme.color(236, 72, 153);     // pink-500
+            Color purple = Theme.color(168, 85, 247);   // purple-500
+            
+            // Use LinearGradientPaint for smooth gradient
+            java.awt.LinearGradientPaint gradient = new java.awt.LinearGradientPaint(
+                x, 0, x + textWidth, 0,
+                new float[]{0.0f, 0.5f, 1.0f},
+                new Color[]{yellow, pink, purple}
+            );
+            
+            // Draw text as shape with gradient fill
+            java.awt.Shape textShape = textLayout.getOutline(
+                java.awt.geom.AffineTransform.getTranslateInstance(x, y)
+            );
+            g2d.setPaint(gradient);
+            g2d.fill(textShape);
+
+            // Draw subtitle
+            Font subtitleFont = Theme.font("SansSerif", Font.PLAIN, 16);
+            g2d.setFont(subtitleFont);
+            g2d.setColor(Theme.color(209, 213, 219)); // gray-300
+            String subtitle = "Catch Numbers, Solve Equations!";
+            FontMetrics subFm = g2d.getFontMetrics();
+            int subX = (width - subFm.stringWidth(subtitle)) / 2;
+            int subY = y + 25;
+            g2d.drawString(subtitle, subX, subY);
+        });
         titlePanel.setOpaque(false);
         titlePanel.setPreferredSize(new Dimension(0, 140));
         titlePanel.setMinimumSize(new Dimension(0, 140));
@@ -106,8 +122,8 @@ public class MainMenu extends JPanel {
 
         // Start Game Button
         GradientButton startButton = new GradientButton("▶ Start Game",
-            new Color(34, 197, 94), new Color(5, 150, 105), // green-500 to emerald-600
-            new Color(22, 163, 74), new Color(5, 122, 85)); // hover colors
+            START_FROM, START_TO, // green-500 to emerald-600
+            START_HOVER_FROM, START_HOVER_TO); // hover colors
         startButton.addActionListener(e -> {
             SoundManager.playSound(SoundManager.Sound.BUTTON_CLICK);
             onStartGame.run();
@@ -115,8 +131,8 @@ public class MainMenu extends JPanel {
 
         // Leaderboard Button
         GradientButton leaderboardButton = new GradientButton("🏆 Leaderboard",
-            new Color(234, 179, 8), new Color(234, 88, 12), // yellow-500 to orange-600
-            new Color(202, 138, 4), new Color(194, 65, 12)); // hover colors
+            LEADERBOARD_FROM, LEADERBOARD_TO, // yellow-500 to orange-600
+            LEADERBOARD_HOVER_FROM, LEADERBOARD_HOVER_TO); // hover colors
         leaderboardButton.addActionListener(e -> {
             SoundManager.playSound(SoundManager.Sound.BUTTON_CLICK);
             onViewLeaderboard.run();
@@ -124,8 +140,8 @@ public class MainMenu extends JPanel {
 
         // Settings Button
         GradientButton settingsButton = new GradientButton("⚙ Settings",
-            new Color(59, 130, 246), new Color(37, 99, 235), // blue-500 to blue-600
-            new Color(29, 78, 216), new Color(30, 64, 175)); // hover colors
+            SETTINGS_FROM, SETTINGS_TO, // blue-500 to blue-600
+            SETTINGS_HOVER_FROM, SETTINGS_HOVER_TO); // hover colors
         settingsButton.addActionListener(e -> {
             SoundManager.playSound(SoundManager.Sound.BUTTON_CLICK);
             onSettings.run();
@@ -133,8 +149,8 @@ public class MainMenu extends JPanel {
 
         // Quit Game Button
         GradientButton quitButton = new GradientButton("✖ Quit Game",
-            new Color(239, 68, 68), new Color(219, 39, 119), // red-500 to pink-600
-            new Color(220, 38, 38), new Color(190, 24, 93)); // hover colors
+            QUIT_FROM, QUIT_TO, // red-500 to pink-600
+            QUIT_HOVER_FROM, QUIT_HOVER_TO); // hover colors
         quitButton.addActionListener(e -> {
             SoundManager.playSound(SoundManager.Sound.BUTTON_CLICK);
             onQuitGame.run();
@@ -153,13 +169,12 @@ public class MainMenu extends JPanel {
             @Override
             protected void paintComponent(Graphics g) {
                 Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+                QualityTier.current().applyHints(g2d);
                 super.paintComponent(g);
             }
         };
-        footer.setForeground(new Color(156, 163, 175)); // gray-400
-        footer.setFont(new Font("SansSerif", Font.PLAIN, 12));
+        footer.setForeground(FOOTER_COLOR); // gray-400
+        footer.setFont(FOOTER_FONT);
         footer.setHorizontalAlignment(SwingConstants.CENTER);
         footer.setBorder(BorderFactory.createEmptyBorder(12, 0, 0, 0));
 
@@ -174,6 +189,7 @@ public class MainMenu extends JPanel {
 
     // Custom gradient button with hover effects
     private static class GradientButton extends JButton {
+        private static final Font FONT = new Font("SansSerif", Font.BOLD, 18);
         private Color color1, color2;
         private Color hoverColor1, hoverColor2;
         private boolean isHovered = false;
@@ -189,7 +205,7 @@ public class MainMenu extends JPanel {
             setContentAreaFilled(false);
             setBorderPainted(false);
             setForeground(Color.WHITE);
-            setFont(new Font("SansSerif", Font.BOLD, 18)); // Normal font size
+            setFont(FONT); // Normal font size
             setPreferredSize(new Dimension(0, 55)); // Normal button height
             setMaximumSize(new Dimension(Integer.MAX_VALUE, 55));
             setMinimumSize(new Dimension(0, 55));
@@ -212,8 +228,8 @@ public class MainMenu extends JPanel {
         @Override
         protected void paintComponent(Graphics g) {
             Graphics2D g2d = (Graphics2D) g;
-            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            QualityTier tier = QualityTier.current();
+            tier.applyHints(g2d);
 
             int width = getWidth();
             int height = getHeight();
@@ -221,7 +237,7 @@ public class MainMenu extends JPanel {
             // Draw gradient background
             Color c1 = isHovered ? hoverColor1 : color1;
             Color c2 = isHovered ? hoverColor2 : color2;
-            GradientPaint gradient = new GradientPaint(
+            Paint gradient = tier.gradient(
                 0, 0, c1,
                 width, height, c2
             );
@@ -229,21 +245,20 @@ public class MainMenu extends JPanel {
             g2d.fillRoundRect(0, 0, width, height, 12, 12); // Normal rounded corners
 
             // Draw shadow/glow on hover
-            if (isHovered) {
+            if (isHovered && tier.isShadows()) {
                 // Simple glow effect
                 for (int i = 1; i <= 2; i++) {
-                    g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.2f / i));
-                    g2d.setStroke(new BasicStroke(2 * i));
+                    g2d.setComposite(Theme.composite(0.2f / i));
+                    g2d.setStroke(Theme.stroke(2 * i));
                     g2d.setColor(c1);
                     g2d.drawRoundRect(i, i, width - 2 * i, height - 2 * i, 12, 12);
                 }
-                g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1.0f));
+                g2d.setComposite(Theme.composite(1.0f));
             }
 
             // Draw text
             g2d.setColor(Color.WHITE);
             g2d.setFont(getFont());
-            g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
             FontMetrics fm = g2d.getFontMetrics();
             String text = getText();
             int textX = (width - fm.stringWidth(text)) / 2;
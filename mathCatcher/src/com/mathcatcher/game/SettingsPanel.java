@@ -1,5 +1,9 @@
 package com.mathcatcher.game;
 
+import com.mathcatcher.render.QualityTier;
+import com.mathcatcher.render.Theme;
+import com.mathcatcher.render.TitlePanel;
+import com.mathcatcher.utils.GraphicsSettings;
 import com.mathcatcher.utils.ResolutionManager;
 
 import javax.swing.*;
@@ -8,6 +12,15 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 
 public class SettingsPanel extends JPanel {
+    private static final Color APPLY_FROM = new Color(34, 197, 94);
+    private static final Color APPLY_TO = new Color(22, 163, 74);
+    private static final Color BACK_FROM = new Color(59, 130, 246);
+    private static final Color BACK_TO = new Color(37, 99, 235);
+    private static final Font LABEL_FONT = new Font("SansSerif", Font.BOLD, 18);
+    private static final Font FIELD_FONT = new Font("SansSerif", Font.PLAIN, 16);
+    private static final Font SMALL_BUTTON_FONT = new Font("SansSerif", Font.BOLD, 14);
+    private static final Font OPTION_FONT = new Font("SansSerif", Font.BOLD, 16);
+    private static final Font OPTION_LIST_FONT = new Font("SansSerif", Font.PLAIN, 14);
 
     public SettingsPanel(Runnable onBack, Runnable onApply) {
         setLayout(new BorderLayout());
@@ -20,21 +33,23 @@ public class SettingsPanel extends JPanel {
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
                 Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                QualityTier tier = QualityTier.current();
+                tier.applyHints(g2d);
 
                 // Semi-transparent black background with shadow effect
                 // Shadow
-                g2d.setColor(new Color(0, 0, 0, 100));
-                g2d.fillRoundRect(4, 4, getWidth(), getHeight(), 32, 32);
+                if (tier.isShadows()) {
+                    g2d.setColor(Theme.color(0, 0, 0, 100));
+                    g2d.fillRoundRect(4, 4, getWidth(), getHeight(), 32, 32);
+                }
 
                 // Main background
-                g2d.setColor(new Color(0, 0, 0, 76));
+                g2d.setColor(Theme.color(0, 0, 0, 76));
                 g2d.fillRoundRect(0, 0, getWidth(), getHeight(), 32, 32);
 
                 // Border
-                g2d.setStroke(new BasicStroke(1));
-                g2d.setColor(new Color(255, 255, 255, 25));
+                g2d.setStroke(Theme.stroke(1));
+                g2d.setColor(Theme.color(255, 255, 255, 25));
                 g2d.drawRoundRect(0, 0, getWidth() - 1, getHeight() - 1, 32, 32);
             }
         };
@@ -42,37 +57,29 @@ public class SettingsPanel extends JPanel {
         container.setBorder(BorderFactory.createEmptyBorder(40, 40, 40, 40));
 
         // Title Section
-        JPanel titlePanel = new JPanel() {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2d = (Graphics2D) g;
-                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-
-                Font titleFont = new Font("SansSerif", Font.BOLD, 48);
-                String title = "Settings";
-
-                FontMetrics fm = g2d.getFontMetrics(titleFont);
-                int textWidth = fm.stringWidth(title);
-                int textHeight = fm.getHeight();
-                int x = (getWidth() - textWidth) / 2;
-                int y = (getHeight() - textHeight) / 2 + fm.getAscent();
-
-                // Gradient text
-                Color cyan = new Color(34, 211, 238);
-                Color blue = new Color(59, 130, 246);
-                java.awt.LinearGradientPaint gradient = new java.awt.LinearGradientPaint(
-                    x, 0, x + textWidth, 0,
-                    new float[]{0.0f, 1.0f},
-                    new Color[]{cyan, blue}
-                );
-
-                g2d.setPaint(gradient);
-                g2d.setFont(titleFont);
-                g2d.drawString(title, x, y);
-            }
-        };
+        JPanel titlePanel = new TitlePanel((g2d, width, height) -> {
+            Font titleFont = Theme.font("SansSerif", Font.BOLD, 48);
+            String title = "Settings";
+
+            FontMetrics fm = g2d.getFontMetrics(titleFont);
+            int textWidth = fm.stringWidth(title);
+            int textHeight = fm.getHeight();
+            int x = (width - textWidth) / 2;
+            int y = (height - textHeight) / 2 + fm.getAscent();
+
+            // Gradient text
+            Color cyan = Theme.color(34, 211, 238);
+            Color blue = Theme.color(59, 130, 246);
+            java.awt.LinearGradientPaint gradient = new java.awt.LinearGradientPaint(
+                x, 0, x + textWidth, 0,
+                new float[]{0.0f, 1.0f},
+                new Color[]{cyan, blue}
+            );
+
+            g2d.setPaint(gradient);
+            g2d.setFont(titleFont);
+            g2d.drawString(title, x, y);
+        });
         titlePanel.setOpaque(false);
         titlePanel.setPreferredSize(new Dimension(0, 100));
 
@@ -90,6 +97,11 @@ public class SettingsPanel extends JPanel {
         // Custom Resolution Input
         JPanel customResPanel = createCustomResolutionPanel();
         settingsContent.add(customResPanel);
+        settingsContent.add(Box.createVerticalStrut(20));
+
+        // Rendering options
+        JPanel renderingPanel = createRenderingPanel();
+        settingsContent.add(renderingPanel);
 
         // Buttons Section
         JPanel buttonPanel = new JPanel();
@@ -97,12 +109,12 @@ public class SettingsPanel extends JPanel {
         buttonPanel.setOpaque(false);
         buttonPanel.setBorder(BorderFactory.createEmptyBorder(20, 0, 0, 0));
 
-        GradientButton applyButton = new GradientButton("Apply", new Color(34, 197, 94), new Color(22, 163, 74));
+        GradientButton applyButton = new GradientButton("Apply", APPLY_FROM, APPLY_TO);
         applyButton.addActionListener(e -> {
             if (onApply != null) onApply.run();
         });
 
-        GradientButton backButton = new GradientButton("Back to Menu", new Color(59, 130, 246), new Color(37, 99, 235));
+        GradientButton backButton = new GradientButton("Back to Menu", BACK_FROM, BACK_TO);
         backButton.addActionListener(e -> {
             if (onBack != null) onBack.run();
         });
@@ -122,11 +134,11 @@ public class SettingsPanel extends JPanel {
         panel.setOpaque(false);
 
         JLabel label = new JLabel("Resolution: ");
-        label.setFont(new Font("SansSerif", Font.BOLD, 18));
+        label.setFont(LABEL_FONT);
         label.setForeground(Color.WHITE);
 
         JComboBox<String> resolutionCombo = new JComboBox<>();
-        resolutionCombo.setFont(new Font("SansSerif", Font.PLAIN, 16));
+        resolutionCombo.setFont(FIELD_FONT);
         resolutionCombo.setPreferredSize(new Dimension(200, 35));
 
         // Populate combo box
@@ -166,23 +178,23 @@ public class SettingsPanel extends JPanel {
         panel.setOpaque(false);
 
         JLabel label = new JLabel("Custom: ");
-        label.setFont(new Font("SansSerif", Font.BOLD, 18));
+        label.setFont(LABEL_FONT);
         label.setForeground(Color.WHITE);
 
         JTextField widthField = new JTextField("800", 6);
-        widthField.setFont(new Font("SansSerif", Font.PLAIN, 16));
+        widthField.setFont(FIELD_FONT);
         widthField.setHorizontalAlignment(JTextField.CENTER);
 
         JLabel xLabel = new JLabel(" x ");
-        xLabel.setFont(new Font("SansSerif", Font.BOLD, 18));
+        xLabel.setFont(LABEL_FONT);
         xLabel.setForeground(Color.WHITE);
 
         JTextField heightField = new JTextField("600", 6);
-        heightField.setFont(new Font("SansSerif", Font.PLAIN, 16));
+        heightField.setFont(FIELD_FONT);
         heightField.setHorizontalAlignment(JTextField.CENTER);
 
         JButton addButton = new JButton("Add");
-        addButton.setFont(new Font("SansSerif", Font.BOLD, 14));
+        addButton.setFont(SMALL_BUTTON_FONT);
         addButton.setPreferredSize(new Dimension(80, 30));
         addButton.addActionListener(e -> {
             try {
@@ -217,8 +229,70 @@ public class SettingsPanel extends JPanel {
         return panel;
     }
 
+    private JPanel createRenderingPanel() {
+        JPanel panel = new JPanel(new GridLayout(0, 1, 0, 5));
+        panel.setOpaque(false);
+
+        JCheckBox activeRenderingBox = new JCheckBox("Active rendering (smoother gameplay, experimental)");
+        activeRenderingBox.setFont(OPTION_FONT);
+        activeRenderingBox.setForeground(Color.WHITE);
+        activeRenderingBox.setOpaque(false);
+        activeRenderingBox.setFocusPainted(false);
+        activeRenderingBox.setSelected(GraphicsSettings.isActiveRendering());
+
+        // Takes effect from the next game
+        activeRenderingBox.addActionListener(e -> GraphicsSettings.setActiveRendering(activeRenderingBox.isSelected()));
+
+        activeRenderingBox.setHorizontalAlignment(SwingConstants.CENTER);
+
+        JCheckBox logicalResolutionBox = new JCheckBox("Fixed render resolution (scaled to the window)");
+        logicalResolutionBox.setFont(OPTION_FONT);
+        logicalResolutionBox.setForeground(Color.WHITE);
+        logicalResolutionBox.setOpaque(false);
+        logicalResolutionBox.setFocusPainted(false);
+        logicalResolutionBox.setSelected(GraphicsSettings.isLogicalResolution());
+        logicalResolutionBox.setHorizontalAlignment(SwingConstants.CENTER);
+        logicalResolutionBox.addActionListener(e -> GraphicsSettings.setLogicalResolution(logicalResolutionBox.isSelected()));
+
+        JCheckBox dynamicResolutionBox = new JCheckBox("Lower render resolution when the game runs slow");
+        dynamicResolutionBox.setFont(OPTION_FONT);
+        dynamicResolutionBox.setForeground(Color.WHITE);
+        dynamicResolutionBox.setOpaque(false);
+        dynamicResolutionBox.setFocusPainted(false);
+        dynamicResolutionBox.setSelected(GraphicsSettings.isDynamicResolution());
+        dynamicResolutionBox.setHorizontalAlignment(SwingConstants.CENTER);
+        dynamicResolutionBox.addActionListener(e -> GraphicsSettings.setDynamicResolution(dynamicResolutionBox.isSelected()));
+
+        // Picked by a benchmark on first start; the user can override it here
+        JPanel qualityPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 0));
+        qualityPanel.setOpaque(false);
+        JLabel qualityLabel = new JLabel("Graphics quality:");
+        qualityLabel.setFont(OPTION_FONT);
+        qualityLabel.setForeground(Color.WHITE);
+        JComboBox<QualityTier> qualityBox = new JComboBox<>(QualityTier.values());
+        qualityBox.setFont(OPTION_LIST_FONT);
+        qualityBox.setSelectedItem(GraphicsSettings.getQualityTier());
+        qualityBox.addActionListener(e -> {
+            GraphicsSettings.setQualityTier((QualityTier) qualityBox.getSelectedItem());
+            Window window = SwingUtilities.getWindowAncestor(this);
+            if (window != null) {
+                window.repaint();
+            }
+        });
+        qualityPanel.add(qualityLabel);
+        qualityPanel.add(qualityBox);
+
+        panel.add(activeRenderingBox);
+        panel.add(logicalResolutionBox);
+        panel.add(dynamicResolutionBox);
+        panel.add(qualityPanel);
+
+        return panel;
+    }
+
     // Gradient Button Class
     static class GradientButton extends JButton {
+        private static final Font FONT = new Font("SansSerif", Font.BOLD, 20);
         private Color startColor;
         private Color endColor;
         private Color hoverStartColor;
@@ -232,7 +306,7 @@ public class SettingsPanel extends JPanel {
             this.hoverStartColor = brighten(startColor);
             this.hoverEndColor = brighten(endColor);
 
-            setFont(new Font("SansSerif", Font.BOLD, 20));
+            setFont(FONT);
             setForeground(Color.WHITE);
             setPreferredSize(new Dimension(200, 50));
             setContentAreaFilled(false);
@@ -265,12 +339,13 @@ public class SettingsPanel extends JPanel {
         @Override
         protected void paintComponent(Graphics g) {
             Graphics2D g2d = (Graphics2D) g;
-            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            QualityTier tier = QualityTier.current();
+            tier.applyHints(g2d);
 
             Color start = isHovered ? hoverStartColor : startColor;
             Color end = isHovered ? hoverEndColor : endColor;
 
-            GradientPaint gradient = new GradientPaint(0, 0, start, 0, getHeight(), end);
+            Paint gradient = tier.gradient(0, 0, start, 0, getHeight(), end);
             g2d.setPaint(gradient);
             g2d.fillRoundRect(0, 0, getWidth(), getHeight(), 15, 15);
 
@@ -0,0 +1,142 @@
+package com.mathcatcher.render;
+
+import javax.swing.JComponent;
+import java.awt.*;
+import java.awt.image.VolatileImage;
+
+/**
+ * Active rendering for a Swing component.
+ *
+ * Frames are drawn into an accelerated VolatileImage back buffer on the calling
+ * (game) thread and flipped straight onto the component, bypassing the
+ * RepaintManager. Swing-initiated repaints (window exposed, card switched)
+ * just blit the last finished frame again. Given a DirtyRegion, only its
+ * rectangles are copied to the screen; the painter is expected to redraw
+ * just those too, and the region is widened to everything whenever the back
+ * buffer had to be recreated or lost its contents. The region is cleared
+ * once shown.
+ */
+public class ActiveRenderer {
+
+    public interface FramePainter {
+        void paintFrame(Graphics2D g2d);
+    }
+
+    private final JComponent target;
+    private VolatileImage backBuffer;
+    private boolean hasFrame;
+
+    public ActiveRenderer(JComponent target) {
+        this.target = target;
+    }
+
+    /**
+     * Render one frame and show it. Returns false if the component cannot be
+     * drawn to right now (not on screen yet, or zero-sized).
+     */
+    public synchronized boolean renderFrame(FramePainter painter) {
+        return renderFrame(painter, null);
+    }
+
+    /**
+     * Render one frame of which only region changed (null: all of it) and
+     * show that part.
+     */
+    public synchronized boolean renderFrame(FramePainter painter, DirtyRegion region) {
+        GraphicsConfiguration gc = target.getGraphicsConfiguration();
+        int width = target.getWidth();
+        int height = target.getHeight();
+        if (gc == null || !target.isShowing() || width <= 0 || height <= 0) {
+            return false;
+        }
+
+        do {
+            if (backBuffer == null || backBuffer.getWidth() != width || backBuffer.getHeight() != height) {
+                createBackBuffer(gc, width, height);
+            }
+
+            int status = backBuffer.validate(gc);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                // Moved to a different screen, or the display mode changed
+                createBackBuffer(gc, width, height);
+            }
+            // Nothing of the last frame is left to keep
+            if (region != null && (!hasFrame || status != VolatileImage.IMAGE_OK)) {
+                region.addAll();
+            }
+
+            Graphics2D g2d = backBuffer.createGraphics();
+            try {
+                painter.paintFrame(g2d);
+            } finally {
+                g2d.dispose();
+            }
+
+            // The surface can be lost while drawing; if so, draw the frame again
+            if (backBuffer.contentsLost()) {
+                hasFrame = false;
+                continue;
+            }
+            hasFrame = true;
+            show(region);
+        } while (backBuffer.contentsLost());
+
+        if (region != null) {
+            region.clear();
+        }
+
+        return true;
+    }
+
+    /**
+     * Blit the last rendered frame onto g. Returns false if there is no valid
+     * frame, in which case the caller has to paint normally.
+     */
+    public synchronized boolean paintLastFrame(Graphics g) {
+        if (!hasFrame || backBuffer == null || backBuffer.contentsLost()
+                || backBuffer.getWidth() != target.getWidth() || backBuffer.getHeight() != target.getHeight()) {
+            return false;
+        }
+        g.drawImage(backBuffer, 0, 0, null);
+        return true;
+    }
+
+    public synchronized void dispose() {
+        if (backBuffer != null) {
+            backBuffer.flush();
+            backBuffer = null;
+        }
+        hasFrame = false;
+    }
+
+    private void createBackBuffer(GraphicsConfiguration gc, int width, int height) {
+        if (backBuffer != null) {
+            backBuffer.flush();
+        }
+        backBuffer = gc.createCompatibleVolatileImage(width, height, Transparency.OPAQUE);
+        hasFrame = false;
+    }
+
+    private void show(DirtyRegion region) {
+        Graphics g = target.getGraphics();
+        if (g == null) {
+            return;
+        }
+        try {
+            if (region == null || region.isFull()) {
+                g.drawImage(backBuffer, 0, 0, null);
+            } else {
+                Rectangle r = new Rectangle();
+                for (int i = 0; i < region.getRectCount(); i++) {
+                    region.getRect(i, r);
+                    g.drawImage(backBuffer, r.x, r.y, r.x + r.width, r.y + r.height,
+                            r.x, r.y, r.x + r.width, r.y + r.height, null);
+                }
+            }
+        } finally {
+            g.dispose();
+        }
+        // Push the frame out now instead of whenever the window system batches it
+        Toolkit.getDefaultToolkit().sync();
+    }
+}
@@ -0,0 +1,69 @@
+package com.mathcatcher.render;
+
+import com.mathcatcher.utils.ResolutionManager;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * The sky gradient and ground strip behind every screen.
+ *
+ * The scene is rendered once per size into an opaque image compatible with
+ * the screen (which Java2D keeps in video memory) and every paint after that
+ * is a single blit. The image is dropped when the resolution setting changes
+ * and redrawn when the quality tier does. The game screen does not use it: its
+ * LayerCompositor keeps the scene in its static layer, drawn with paintScene,
+ * so the image is not rebuilt whenever the game's logical size and the menus'
+ * window size take turns.
+ * Shared by the menus (EDT) and the game (game loop thread), hence synchronized.
+ */
+public class BackgroundLayer {
+    private static final Color SKY_TOP = new Color(135, 206, 250);
+    private static final Color SKY_BOTTOM = new Color(176, 224, 230);
+    private static final Color GROUND = new Color(34, 139, 34);
+    public static final int GROUND_HEIGHT = 50;
+
+    private static BufferedImage image;
+    private static QualityTier imageTier;
+
+    static {
+        ResolutionManager.addResolutionListener(BackgroundLayer::invalidate);
+    }
+
+    // Fill (0, 0, width, height) with the background
+    public static void paint(Graphics2D g2d, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        g2d.drawImage(getImage(g2d.getDeviceConfiguration(), width, height), 0, 0, null);
+    }
+
+    private static synchronized BufferedImage getImage(GraphicsConfiguration gc, int width, int height) {
+        QualityTier tier = QualityTier.current();
+        if (image == null || image.getWidth() != width || image.getHeight() != height || tier != imageTier) {
+            image = gc != null
+                    ? gc.createCompatibleImage(width, height, Transparency.OPAQUE)
+                    : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g2d = image.createGraphics();
+            paintScene(g2d, width, height);
+            g2d.dispose();
+            imageTier = tier;
+        }
+        return image;
+    }
+
+    // The background drawn from scratch
+    public static void paintScene(Graphics2D g2d, int width, int height) {
+        // Sky gradient
+        g2d.setPaint(QualityTier.current().gradient(0, 0, SKY_TOP, 0, height, SKY_BOTTOM));
+        g2d.fillRect(0, 0, width, height);
+
+        // Ground
+        g2d.setColor(GROUND);
+        g2d.fillRect(0, height - GROUND_HEIGHT, width, GROUND_HEIGHT);
+    }
+
+    public static synchronized void invalidate() {
+        image = null;
+    }
+}
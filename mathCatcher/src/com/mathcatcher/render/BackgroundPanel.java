@@ -0,0 +1,19 @@
+package com.mathcatcher.render;
+
+import javax.swing.JPanel;
+import java.awt.*;
+
+// A container that paints the shared game background behind its children
+public class BackgroundPanel extends JPanel {
+
+    public BackgroundPanel(LayoutManager layout) {
+        super(layout);
+        setOpaque(true);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        // The background covers every pixel, so there is nothing for super to clear
+        BackgroundLayer.paint((Graphics2D) g, getWidth(), getHeight());
+    }
+}
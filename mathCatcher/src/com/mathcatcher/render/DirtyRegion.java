@@ -0,0 +1,173 @@
+package com.mathcatcher.render;
+
+import java.awt.Rectangle;
+
+/**
+ * The parts of a view that changed since the last frame.
+ *
+ * Rectangles are added as entities move (old and new bounds) and widgets
+ * change. Overlapping rectangles are merged, and once there are more than
+ * MAX_RECTS the two whose union wastes the least area are merged, so the
+ * region stays a short list of disjoint-ish rectangles to clip to. When the
+ * region covers more than a given share of the view, redrawing all of it is
+ * cheaper than the clipping, so isLarge() tells the caller to repaint fully.
+ *
+ * Allocation free; not thread-safe (owned by one view, used under its lock).
+ */
+public class DirtyRegion {
+    public static final int MAX_RECTS = 8;
+
+    private final int[] x0 = new int[MAX_RECTS + 1];
+    private final int[] y0 = new int[MAX_RECTS + 1];
+    private final int[] x1 = new int[MAX_RECTS + 1];
+    private final int[] y1 = new int[MAX_RECTS + 1];
+    private int count;
+    private boolean full;
+    private int viewWidth;
+    private int viewHeight;
+
+    public void setViewSize(int width, int height) {
+        this.viewWidth = width;
+        this.viewHeight = height;
+    }
+
+    public void clear() {
+        count = 0;
+        full = false;
+    }
+
+    // Everything is dirty (pause toggled, screen resized, ...)
+    public void addAll() {
+        full = true;
+    }
+
+    public void add(Rectangle r) {
+        add(r.x, r.y, r.width, r.height);
+    }
+
+    public void add(int x, int y, int width, int height) {
+        if (full) {
+            return;
+        }
+        // Clip to the view
+        int left = Math.max(x, 0);
+        int top = Math.max(y, 0);
+        int right = Math.min(x + width, viewWidth);
+        int bottom = Math.min(y + height, viewHeight);
+        if (left >= right || top >= bottom) {
+            return;
+        }
+
+        // Grow an overlapping rectangle instead of adding one
+        for (int i = 0; i < count; i++) {
+            if (left < x1[i] && right > x0[i] && top < y1[i] && bottom > y0[i]) {
+                x0[i] = Math.min(x0[i], left);
+                y0[i] = Math.min(y0[i], top);
+                x1[i] = Math.max(x1[i], right);
+                y1[i] = Math.max(y1[i], bottom);
+                return;
+            }
+        }
+
+        x0[count] = left;
+        y0[count] = top;
+        x1[count] = right;
+        y1[count] = bottom;
+        count++;
+        if (count > MAX_RECTS) {
+            mergeCheapestPair();
+        }
+    }
+
+    private void mergeCheapestPair() {
+        int bestA = 0;
+        int bestB = 1;
+        long bestWaste = Long.MAX_VALUE;
+        for (int a = 0; a < count; a++) {
+            for (int b = a + 1; b < count; b++) {
+                long union = (long) (Math.max(x1[a], x1[b]) - Math.min(x0[a], x0[b]))
+                        * (Math.max(y1[a], y1[b]) - Math.min(y0[a], y0[b]));
+                long waste = union - area(a) - area(b);
+                if (waste < bestWaste) {
+                    bestWaste = waste;
+                    bestA = a;
+                    bestB = b;
+                }
+            }
+        }
+
+        x0[bestA] = Math.min(x0[bestA], x0[bestB]);
+        y0[bestA] = Math.min(y0[bestA], y0[bestB]);
+        x1[bestA] = Math.max(x1[bestA], x1[bestB]);
+        y1[bestA] = Math.max(y1[bestA], y1[bestB]);
+        count--;
+        x0[bestB] = x0[count];
+        y0[bestB] = y0[count];
+        x1[bestB] = x1[count];
+        y1[bestB] = y1[count];
+    }
+
+    private long area(int i) {
+        return (long) (x1[i] - x0[i]) * (y1[i] - y0[i]);
+    }
+
+    public boolean isEmpty() {
+        return !full && count == 0;
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+
+    // Summed area of the rectangles (they may overlap a little after merging)
+    public long getArea() {
+        if (full) {
+            return (long) viewWidth * viewHeight;
+        }
+        long area = 0;
+        for (int i = 0; i < count; i++) {
+            area += area(i);
+        }
+        return area;
+    }
+
+    // True if the region is all of the view or more than maxFraction of it
+    public boolean isLarge(double maxFraction) {
+        return full || getArea() > maxFraction * viewWidth * viewHeight;
+    }
+
+    // Bounding box of the region, into out
+    public Rectangle getBounds(Rectangle out) {
+        if (full) {
+            out.setBounds(0, 0, viewWidth, viewHeight);
+            return out;
+        }
+        if (count == 0) {
+            out.setBounds(0, 0, 0, 0);
+            return out;
+        }
+        int left = x0[0], top = y0[0], right = x1[0], bottom = y1[0];
+        for (int i = 1; i < count; i++) {
+            left = Math.min(left, x0[i]);
+            top = Math.min(top, y0[i]);
+            right = Math.max(right, x1[i]);
+            bottom = Math.max(bottom, y1[i]);
+        }
+        out.setBounds(left, top, right - left, bottom - top);
+        return out;
+    }
+
+    public int getRectCount() {
+        return full ? 1 : count;
+    }
+
+    // Rectangle i of the region, into out
+    public Rectangle getRect(int i, Rectangle out) {
+        if (full) {
+            out.setBounds(0, 0, viewWidth, viewHeight);
+        } else {
+            out.setBounds(x0[i], y0[i], x1[i] - x0[i], y1[i] - y0[i]);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,165 @@
+package com.mathcatcher.render;
+
+import com.mathcatcher.entities.FallingNumber;
+import com.mathcatcher.entities.FallingNumberStore;
+import com.mathcatcher.utils.Collision;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * Draws all falling numbers of a frame in one pass sorted by Graphics state.
+ *
+ * Visible numbers are first collected and sorted by value. In sprite mode
+ * (the default) each run of equal values fetches its sprite once and blits it
+ * for every number in the run, so the only state change is the source image.
+ * In vector mode the bubbles are painted from shapes: all shadows (if the
+ * quality tier has them), then all fills, then all borders, then all labels,
+ * setting each style once; labels come from a GlyphAtlas. Either way the pass
+ * reports its draw calls and state changes to FrameStats.
+ *
+ * Sorting by value also fixes the overlap order of two numbers, so it never
+ * flickers from frame to frame. Reuses its buffers: no allocation once warm.
+ */
+public class FallingNumberBatch {
+    // The shadow and border reach this far outside a bubble's SIZE x SIZE box
+    private static final int OVERHANG = 2;
+    private static final int EXTENT = FallingNumber.SIZE + 3 + 2 * OVERHANG;
+
+    private long[] order = new long[64]; // value in the high half, store index in the low half
+    private int[] drawX = new int[64];
+    private int[] drawY = new int[64];
+    private boolean useSprites = true;
+
+    public void setUseSprites(boolean useSprites) {
+        this.useSprites = useSprites;
+    }
+
+    public boolean isUseSprites() {
+        return useSprites;
+    }
+
+    /**
+     * Draw every number of the store that shows in area (the view, or the
+     * part of it being repainted), at its position interpolated by alpha.
+     */
+    public void draw(Graphics2D g2d, FallingNumberStore numbers, double alpha, Rectangle area, FrameStats stats) {
+        int count = collect(numbers, alpha, area);
+        if (count == 0) {
+            return;
+        }
+        Arrays.sort(order, 0, count);
+
+        if (useSprites) {
+            drawSprites(g2d, count, stats);
+        } else {
+            drawShapes(g2d, count, stats);
+        }
+    }
+
+    // Fill order[] with the visible numbers and remember where each one goes this frame
+    private int collect(FallingNumberStore numbers, double alpha, Rectangle area) {
+        int size = numbers.size();
+        if (order.length < size) {
+            int capacity = Math.max(size, order.length * 2);
+            order = new long[capacity];
+            drawX = Arrays.copyOf(drawX, capacity);
+            drawY = Arrays.copyOf(drawY, capacity);
+        }
+
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            int x = numbers.getX(i);
+            int y = (int) numbers.getY(i, alpha);
+            drawX[i] = x;
+            drawY[i] = y;
+            if (!Collision.intersects(x - OVERHANG, y - OVERHANG, EXTENT, EXTENT,
+                    area.x, area.y, area.width, area.height)) {
+                continue;
+            }
+            // Value in the high half keeps its sign, so entries sort by value, then index
+            order[count++] = ((long) numbers.getValue(i) << 32) | i;
+        }
+        return count;
+    }
+
+    private static int valueOf(long entry) {
+        return (int) (entry >> 32);
+    }
+
+    private static int indexOf(long entry) {
+        return (int) entry;
+    }
+
+    private void drawSprites(Graphics2D g2d, int count, FrameStats stats) {
+        NumberSpriteCache cache = NumberSpriteCache.getShared();
+        BufferedImage sprite = null;
+        int spriteValue = 0;
+
+        for (int k = 0; k < count; k++) {
+            int value = valueOf(order[k]);
+            if (sprite == null || value != spriteValue) {
+                sprite = cache.getSprite(g2d, value);
+                spriteValue = value;
+                stats.addStateChanges(1);
+            }
+            int i = indexOf(order[k]);
+            NumberSpriteCache.drawSprite(g2d, sprite, drawX[i], drawY[i]);
+        }
+        stats.addDrawCalls(count);
+    }
+
+    private void drawShapes(Graphics2D g2d, int count, FrameStats stats) {
+        if (QualityTier.current().isShadows()) {
+            FallingNumber.setShadowStyle(g2d);
+            for (int k = 0; k < count; k++) {
+                int i = indexOf(order[k]);
+                FallingNumber.drawShadow(g2d, drawX[i], drawY[i]);
+            }
+            stats.addStateChanges(1);
+            stats.addDrawCalls(count);
+        }
+
+        FallingNumber.setFillStyle(g2d);
+        for (int k = 0; k < count; k++) {
+            int i = indexOf(order[k]);
+            FallingNumber.drawFill(g2d, drawX[i], drawY[i]);
+        }
+
+        FallingNumber.setBorderStyle(g2d);
+        for (int k = 0; k < count; k++) {
+            int i = indexOf(order[k]);
+            FallingNumber.drawBorder(g2d, drawX[i], drawY[i]);
+        }
+        stats.addStateChanges(3); // fill color, border color and stroke
+        stats.addDrawCalls(2 * count);
+
+        // Labels: one atlas for all numbers that fit, a smaller one per size for those that do not
+        Font font = FallingNumber.getLabelFont();
+        GlyphAtlas labels = GlyphAtlas.get(g2d, font, Color.BLACK);
+        GlyphAtlas atlas = labels;
+        stats.addStateChanges(1);
+        for (int k = 0; k < count; k++) {
+            int i = indexOf(order[k]);
+            int value = valueOf(order[k]);
+
+            GlyphAtlas wanted = labels;
+            int width = labels.intWidth(value);
+            if (width > FallingNumber.LABEL_MAX_WIDTH) {
+                int size = font.getSize() * FallingNumber.LABEL_MAX_WIDTH / width;
+                wanted = GlyphAtlas.get(g2d, Theme.font(font.getName(), font.getStyle(), size), Color.BLACK);
+                width = wanted.intWidth(value);
+            }
+            if (wanted != atlas) {
+                atlas = wanted;
+                stats.addStateChanges(1);
+            }
+
+            int textX = drawX[i] + (FallingNumber.SIZE - width) / 2;
+            int textY = drawY[i] + (FallingNumber.SIZE + atlas.getAscent()) / 2 - 2;
+            atlas.drawInt(g2d, value, textX, textY);
+        }
+        stats.addDrawCalls(count);
+    }
+}
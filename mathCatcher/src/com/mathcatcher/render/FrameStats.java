@@ -0,0 +1,60 @@
+package com.mathcatcher.render;
+
+/**
+ * Per-frame render counters.
+ *
+ * The render passes report what they do: draw calls, and Graphics state
+ * changes (color, stroke, font, paint or source image switches, each of which
+ * makes Java2D revalidate its pipeline). The counts of the last finished frame
+ * stay readable until the next one ends, for the debug overlay and profiling.
+ *
+ * Updated and read by whoever paints the frame, under the view's lock.
+ */
+public class FrameStats {
+    private long frameStart;
+    private int drawCalls;
+    private int stateChanges;
+
+    private long frames;
+    private long lastFrameNanos;
+    private int lastDrawCalls;
+    private int lastStateChanges;
+
+    public void beginFrame() {
+        frameStart = System.nanoTime();
+        drawCalls = 0;
+        stateChanges = 0;
+    }
+
+    public void endFrame() {
+        lastFrameNanos = System.nanoTime() - frameStart;
+        lastDrawCalls = drawCalls;
+        lastStateChanges = stateChanges;
+        frames++;
+    }
+
+    public void addDrawCalls(int count) {
+        drawCalls += count;
+    }
+
+    public void addStateChanges(int count) {
+        stateChanges += count;
+    }
+
+    public long getFrameCount() {
+        return frames;
+    }
+
+    // Time spent painting the last frame
+    public long getFrameNanos() {
+        return lastFrameNanos;
+    }
+
+    public int getDrawCalls() {
+        return lastDrawCalls;
+    }
+
+    public int getStateChanges() {
+        return lastStateChanges;
+    }
+}
@@ -0,0 +1,205 @@
+package com.mathcatcher.render;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pre-rendered digits and equation symbols for one font, color, scale and
+ * quality tier.
+ *
+ * Nearly all text during a game is numbers: score, level, timer, equation
+ * operands. The atlas rasterizes "0-9 + - × ÷ = ? :" and a space once into a
+ * single translucent image, and then draws ints and short equation strings by
+ * copying glyph cells out of it. No String is built and there is no glyph
+ * lookup or layout per call, so the cost is a fixed few blits per character.
+ * Digits are assumed to have no kerning, which holds for the fonts we use.
+ */
+public class GlyphAtlas {
+    private static final String GLYPHS = "0123456789+-×÷=?: ";
+    private static final int PAD = 2; // transparent margin around each cell, for antialiasing and overhang
+    private static final int MAX_ATLASES = 32;
+
+    // Few fonts are ever in use, so a list scan finds an atlas without allocating a key
+    private static final List<GlyphAtlas> atlases = new ArrayList<>();
+
+    private final Font font;
+    private final Color color;
+    private final double scale;
+    private final int scaleKey;
+    private final QualityTier tier;
+    private final int ascent;
+    private final int cellHeight;
+    private final int[] advance = new int[GLYPHS.length()];
+    private final int[] cellX = new int[GLYPHS.length()];
+    private final int[] pixelX = new int[GLYPHS.length() + 1];
+    private final int pixelHeight;
+    private final BufferedImage image;
+
+    /**
+     * The atlas for drawing text in this font and color on g2d, created on
+     * first use. Scale comes from the Graphics transform so glyphs stay crisp.
+     */
+    public static synchronized GlyphAtlas get(Graphics2D g2d, Font font, Color color) {
+        AffineTransform transform = g2d.getTransform();
+        double scale = Math.max(Math.abs(transform.getScaleX()), Math.abs(transform.getScaleY()));
+        // Round the scale so tiny transform differences share an atlas
+        int scaleKey = Math.max((int) Math.round(scale * 100), 1);
+        QualityTier tier = QualityTier.current();
+
+        for (int i = 0; i < atlases.size(); i++) {
+            GlyphAtlas atlas = atlases.get(i);
+            if (atlas.scaleKey == scaleKey && atlas.tier == tier && atlas.font.equals(font) && atlas.color.equals(color)) {
+                return atlas;
+            }
+        }
+
+        if (atlases.size() >= MAX_ATLASES) {
+            atlases.remove(0);
+        }
+        GlyphAtlas atlas = new GlyphAtlas(g2d.getDeviceConfiguration(), font, color, scaleKey, tier);
+        atlases.add(atlas);
+        return atlas;
+    }
+
+    private GlyphAtlas(GraphicsConfiguration gc, Font font, Color color, int scaleKey, QualityTier tier) {
+        this.font = font;
+        this.color = color;
+        this.scaleKey = scaleKey;
+        this.scale = scaleKey / 100.0;
+        this.tier = tier;
+
+        // Measure in user space with the same hints the glyphs are drawn with
+        BufferedImage scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D measure = scratch.createGraphics();
+        tier.applyHints(measure);
+        FontMetrics fm = measure.getFontMetrics(font);
+        measure.dispose();
+
+        ascent = fm.getAscent();
+        cellHeight = fm.getAscent() + fm.getDescent() + 2 * PAD;
+        int x = 0;
+        for (int i = 0; i < GLYPHS.length(); i++) {
+            advance[i] = fm.charWidth(GLYPHS.charAt(i));
+            cellX[i] = x;
+            pixelX[i] = (int) Math.floor(x * scale);
+            x += advance[i] + 2 * PAD;
+        }
+        pixelX[GLYPHS.length()] = (int) Math.ceil(x * scale);
+        pixelHeight = (int) Math.ceil(cellHeight * scale);
+
+        int pixelWidth = pixelX[GLYPHS.length()];
+        image = gc != null
+                ? gc.createCompatibleImage(pixelWidth, pixelHeight, Transparency.TRANSLUCENT)
+                : new BufferedImage(pixelWidth, pixelHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        tier.applyHints(g2d);
+        g2d.scale(scale, scale);
+        g2d.setFont(font);
+        g2d.setColor(color);
+        for (int i = 0; i < GLYPHS.length(); i++) {
+            g2d.drawString(GLYPHS.substring(i, i + 1), cellX[i] + PAD, PAD + ascent);
+        }
+        g2d.dispose();
+    }
+
+    // True if every character of text is in the atlas
+    public static boolean canDraw(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (GLYPHS.indexOf(text.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int getAscent() {
+        return ascent;
+    }
+
+    public int charWidth(char c) {
+        int index = GLYPHS.indexOf(c);
+        return index < 0 ? 0 : advance[index];
+    }
+
+    public int intWidth(int value) {
+        return intWidth(value, 1);
+    }
+
+    // Width of value printed with at least minDigits digits (zero padded)
+    public int intWidth(int value, int minDigits) {
+        long v = value;
+        int width = 0;
+        if (v < 0) {
+            width += advance[GLYPHS.indexOf('-')];
+            v = -v;
+        }
+        return width + Math.max(digitCount(v), minDigits) * advance[0];
+    }
+
+    public int textWidth(CharSequence text) {
+        int width = 0;
+        for (int i = 0; i < text.length(); i++) {
+            width += charWidth(text.charAt(i));
+        }
+        return width;
+    }
+
+    /**
+     * Draw a character with its baseline at y, like drawString, and return the
+     * x where the next character goes. Characters outside the atlas are skipped.
+     */
+    public int drawChar(Graphics2D g2d, char c, int x, int y) {
+        int index = GLYPHS.indexOf(c);
+        if (index < 0) {
+            return x;
+        }
+        int dx = x - PAD;
+        int dy = y - ascent - PAD;
+        g2d.drawImage(image,
+                dx, dy, dx + advance[index] + 2 * PAD, dy + cellHeight,
+                pixelX[index], 0, pixelX[index + 1], pixelHeight,
+                null);
+        return x + advance[index];
+    }
+
+    public int drawInt(Graphics2D g2d, int value, int x, int y) {
+        return drawInt(g2d, value, 1, x, y);
+    }
+
+    // Draw value zero padded to minDigits (e.g. seconds in a mm:ss timer) without building a String
+    public int drawInt(Graphics2D g2d, int value, int minDigits, int x, int y) {
+        long v = value;
+        if (v < 0) {
+            x = drawChar(g2d, '-', x, y);
+            v = -v;
+        }
+        int digits = Math.max(digitCount(v), minDigits);
+        long divisor = 1;
+        for (int i = 1; i < digits; i++) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            x = drawChar(g2d, (char) ('0' + (v / divisor) % 10), x, y);
+        }
+        return x;
+    }
+
+    public int drawText(Graphics2D g2d, CharSequence text, int x, int y) {
+        for (int i = 0; i < text.length(); i++) {
+            x = drawChar(g2d, text.charAt(i), x, y);
+        }
+        return x;
+    }
+
+    private static int digitCount(long v) {
+        int digits = 1;
+        while (v >= 10) {
+            v /= 10;
+            digits++;
+        }
+        return digits;
+    }
+}
@@ -0,0 +1,134 @@
+package com.mathcatcher.render;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+/**
+ * Builds a game frame out of three layers, back to front:
+ *
+ * - static: drawn once per size, scale and quality tier (sky, ground, help text)
+ * - slow: changes a few times a second at most (HUD, pause button, pause menu);
+ *   redrawn only after invalidate(Layer.SLOW)
+ * - dynamic: everything that moves, drawn by the caller every frame over draw()
+ *
+ * Each cached layer has its own opaque back buffer. The slow buffer starts as
+ * a copy of the static one, so a frame is one blit of it plus the dynamic
+ * draw, and rebuilding it costs a blit plus the slow painter; blending a
+ * full-screen translucent HUD image every frame would cost more than it saves.
+ *
+ * Not thread-safe: owned by one view and drawn under its lock.
+ */
+public class LayerCompositor {
+
+    public enum Layer {
+        STATIC, SLOW
+    }
+
+    private final int width;
+    private final int height;
+    private final RetainedLayer.Painter staticPainter;
+    private final RetainedLayer.Painter slowPainter;
+
+    private BufferedImage staticImage;
+    private BufferedImage slowImage;
+    private boolean staticValid;
+    private boolean slowValid;
+    private double scale;
+    private QualityTier tier;
+
+    /**
+     * A compositor for a width x height view. The painters draw their layer in
+     * view coordinates; the static painter must cover the whole view.
+     */
+    public LayerCompositor(int width, int height, RetainedLayer.Painter staticPainter,
+                           RetainedLayer.Painter slowPainter) {
+        this.width = width;
+        this.height = height;
+        this.staticPainter = staticPainter;
+        this.slowPainter = slowPainter;
+    }
+
+    // Redraw the layer on the next draw; everything in front of it is redrawn too
+    public void invalidate(Layer layer) {
+        if (layer == Layer.STATIC) {
+            staticValid = false;
+        }
+        slowValid = false;
+    }
+
+    // Blit the static and slow layers onto (0, 0, width, height), rebuilding what is invalid first
+    public void draw(Graphics2D g2d, FrameStats stats) {
+        AffineTransform transform = g2d.getTransform();
+        double scale = Math.max(Math.abs(transform.getScaleX()), Math.abs(transform.getScaleY()));
+        QualityTier tier = QualityTier.current();
+        if (scale != this.scale || tier != this.tier) {
+            this.scale = scale;
+            this.tier = tier;
+            staticValid = false;
+            slowValid = false;
+        }
+
+        GraphicsConfiguration gc = g2d.getDeviceConfiguration();
+        if (!staticValid) {
+            staticImage = createImage(gc, staticImage);
+            paintLayer(staticImage, null, staticPainter);
+            staticValid = true;
+            slowValid = false;
+        }
+        if (!slowValid) {
+            slowImage = createImage(gc, slowImage);
+            paintLayer(slowImage, staticImage, slowPainter);
+            slowValid = true;
+            stats.addDrawCalls(1);
+        }
+
+        if (slowImage.getWidth() == width && slowImage.getHeight() == height) {
+            g2d.drawImage(slowImage, 0, 0, null);
+        } else {
+            g2d.drawImage(slowImage, 0, 0, width, height, null);
+        }
+        stats.addDrawCalls(1);
+    }
+
+    // An opaque image of the view's size in device pixels, reusing image if it still fits
+    private BufferedImage createImage(GraphicsConfiguration gc, BufferedImage image) {
+        int pixelWidth = (int) Math.ceil(width * scale);
+        int pixelHeight = (int) Math.ceil(height * scale);
+        if (image != null && image.getWidth() == pixelWidth && image.getHeight() == pixelHeight) {
+            return image;
+        }
+        return gc != null
+                ? gc.createCompatibleImage(pixelWidth, pixelHeight, Transparency.OPAQUE)
+                : new BufferedImage(pixelWidth, pixelHeight, BufferedImage.TYPE_INT_RGB);
+    }
+
+    // Draw painter into image, over a copy of below if there is one
+    private void paintLayer(BufferedImage image, BufferedImage below, RetainedLayer.Painter painter) {
+        Graphics2D g2d = image.createGraphics();
+        try {
+            if (below != null) {
+                g2d.drawImage(below, 0, 0, null);
+            }
+            tier.applyHints(g2d);
+            g2d.scale(scale, scale);
+            painter.paint(g2d);
+        } finally {
+            g2d.dispose();
+        }
+    }
+
+    // Drop the buffers; they are created again on the next draw
+    public void dispose() {
+        if (staticImage != null) {
+            staticImage.flush();
+            staticImage = null;
+        }
+        if (slowImage != null) {
+            slowImage.flush();
+            slowImage = null;
+        }
+        staticValid = false;
+        slowValid = false;
+    }
+}
@@ -0,0 +1,137 @@
+package com.mathcatcher.render;
+
+import com.mathcatcher.entities.FallingNumber;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pre-rendered falling number bubbles.
+ *
+ * Each distinct (value, scale, quality tier) is rasterized once with
+ * FallingNumber.drawBubble into a translucent image compatible with the
+ * screen, then every frame just blits it. Scale is the one the Graphics is
+ * currently drawing at (HiDPI screens, scaled render targets), so sprites stay
+ * sharp. Least recently used sprites are dropped once the cache goes over its
+ * memory budget.
+ *
+ * Called from the game loop thread and the EDT, so all access is synchronized.
+ */
+public class NumberSpriteCache {
+    private static final long DEFAULT_BUDGET_BYTES = 4L * 1024 * 1024;
+
+    // The bubble's shadow and border stick out of its SIZE x SIZE box
+    private static final int PADDING = 2;
+    private static final int SPRITE_SIZE = FallingNumber.SIZE + 3 + 2 * PADDING;
+
+    private static final NumberSpriteCache SHARED = new NumberSpriteCache(DEFAULT_BUDGET_BYTES);
+
+    private final long budgetBytes;
+    private final LinkedHashMap<Long, BufferedImage> sprites = new LinkedHashMap<>(64, 0.75f, true);
+    private long usedBytes;
+    private long hits;
+    private long misses;
+
+    public NumberSpriteCache(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    // The cache every FallingNumber draws through
+    public static NumberSpriteCache getShared() {
+        return SHARED;
+    }
+
+    // Draw the bubble for value with its top-left corner at (x, y), like FallingNumber.drawBubble
+    public void draw(Graphics2D g2d, int x, int y, int value) {
+        drawSprite(g2d, getSprite(g2d, value), x, y);
+    }
+
+    // The sprite for value at g2d's scale; batches fetch it once and draw it many times
+    public BufferedImage getSprite(Graphics2D g2d, int value) {
+        AffineTransform transform = g2d.getTransform();
+        double scale = Math.max(Math.abs(transform.getScaleX()), Math.abs(transform.getScaleY()));
+        return getSprite(g2d.getDeviceConfiguration(), value, scale, QualityTier.current());
+    }
+
+    public static void drawSprite(Graphics2D g2d, BufferedImage sprite, int x, int y) {
+        if (sprite.getWidth() == SPRITE_SIZE) {
+            g2d.drawImage(sprite, x - PADDING, y - PADDING, null);
+        } else {
+            g2d.drawImage(sprite, x - PADDING, y - PADDING, SPRITE_SIZE, SPRITE_SIZE, null);
+        }
+    }
+
+    private synchronized BufferedImage getSprite(GraphicsConfiguration gc, int value, double scale, QualityTier tier) {
+        // Round the scale so tiny transform differences share a sprite
+        int scaleKey = Math.min((int) Math.round(scale * 100), 0xffffff);
+        long key = ((long) value << 32) | ((long) tier.ordinal() << 24) | scaleKey;
+
+        BufferedImage sprite = sprites.get(key);
+        if (sprite != null) {
+            hits++;
+            return sprite;
+        }
+        misses++;
+
+        sprite = rasterize(gc, value, Math.max(scaleKey, 1) / 100.0, tier);
+        sprites.put(key, sprite);
+        usedBytes += sizeOf(sprite);
+        evict();
+        return sprite;
+    }
+
+    private static BufferedImage rasterize(GraphicsConfiguration gc, int value, double scale, QualityTier tier) {
+        int pixels = (int) Math.ceil(SPRITE_SIZE * scale);
+        // Without antialiasing or translucency every pixel is either solid or empty, and bitmask images blit faster
+        int transparency = tier.isTranslucency() || tier.isAntialiasing() ? Transparency.TRANSLUCENT : Transparency.BITMASK;
+        BufferedImage sprite = gc != null
+                ? gc.createCompatibleImage(pixels, pixels, transparency)
+                : new BufferedImage(pixels, pixels, BufferedImage.TYPE_INT_ARGB);
+
+        Graphics2D g2d = sprite.createGraphics();
+        tier.applyHints(g2d);
+        g2d.scale(scale, scale);
+        FallingNumber.drawBubble(g2d, PADDING, PADDING, value);
+        g2d.dispose();
+        return sprite;
+    }
+
+    // Drop least recently used sprites until we are back under budget (always keep the newest)
+    private void evict() {
+        Iterator<Map.Entry<Long, BufferedImage>> it = sprites.entrySet().iterator();
+        while (usedBytes > budgetBytes && sprites.size() > 1) {
+            BufferedImage eldest = it.next().getValue();
+            it.remove();
+            usedBytes -= sizeOf(eldest);
+        }
+    }
+
+    private static long sizeOf(BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight() * 4;
+    }
+
+    public synchronized void clear() {
+        sprites.clear();
+        usedBytes = 0;
+    }
+
+    public synchronized int size() {
+        return sprites.size();
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
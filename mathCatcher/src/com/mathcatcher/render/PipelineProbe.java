@@ -0,0 +1,237 @@
+package com.mathcatcher.render;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finds the fastest Java2D pipeline on this machine.
+ *
+ * Java2D picks its pipeline (software loops, XRender, OpenGL, Direct3D,
+ * Metal) once at JVM start, so each candidate is tried in a child JVM
+ * started with its sun.java2d properties. The child (main() below) checks
+ * that the pipeline draws correctly and runs QualityBenchmark's scene on an
+ * accelerated surface; the parent reads the frame time from its output. A
+ * child that fails, crashes, draws garbage or hangs just loses. The result is
+ * cached in ~/.mathcatcher/pipeline.properties, keyed by OS and Java version,
+ * so only the first start pays for probing.
+ */
+public class PipelineProbe {
+    private static final String RESULT_PREFIX = "frameNanos=";
+    private static final long CHILD_TIMEOUT_SECONDS = 15;
+    private static final File CACHE_FILE = new File(new File(System.getProperty("user.home"), ".mathcatcher"),
+            "pipeline.properties");
+
+    public enum Pipeline {
+        SOFTWARE, XRENDER, OPENGL, D3D, METAL;
+
+        // JVM options that select this pipeline on the current OS
+        public List<String> getJvmOptions() {
+            boolean windows = isWindows();
+            switch (this) {
+                case XRENDER:
+                    return Arrays.asList("-Dsun.java2d.xrender=true", "-Dsun.java2d.opengl=false");
+                case OPENGL:
+                    return windows
+                            ? Arrays.asList("-Dsun.java2d.opengl=true", "-Dsun.java2d.d3d=false")
+                            : Arrays.asList("-Dsun.java2d.opengl=true", "-Dsun.java2d.xrender=false");
+                case D3D:
+                    return Arrays.asList("-Dsun.java2d.d3d=true", "-Dsun.java2d.opengl=false");
+                case METAL:
+                    return Arrays.asList("-Dsun.java2d.metal=true");
+                case SOFTWARE:
+                default:
+                    return windows
+                            ? Arrays.asList("-Dsun.java2d.d3d=false", "-Dsun.java2d.opengl=false", "-Dsun.java2d.noddraw=true")
+                            : Arrays.asList("-Dsun.java2d.xrender=false", "-Dsun.java2d.opengl=false");
+            }
+        }
+
+        // Pipelines worth trying on the current OS, the safe one first
+        public static List<Pipeline> candidates() {
+            String os = System.getProperty("os.name", "").toLowerCase();
+            if (os.contains("mac")) {
+                // macOS has no software pipeline; Metal is the default since JDK 17
+                return Arrays.asList(METAL, OPENGL);
+            }
+            if (isWindows()) {
+                return Arrays.asList(SOFTWARE, D3D, OPENGL);
+            }
+            return Arrays.asList(SOFTWARE, XRENDER, OPENGL);
+        }
+    }
+
+    /**
+     * Child JVM entry point: verify the pipeline and print the benchmark's
+     * median frame time. Exits non-zero if the pipeline is unusable.
+     */
+    public static void main(String[] args) {
+        try {
+            if (GraphicsEnvironment.isHeadless() || !drawsCorrectly()) {
+                System.exit(2);
+            }
+            System.out.println(RESULT_PREFIX + QualityBenchmark.measureFrameNanos());
+            System.out.flush();
+            System.exit(0);
+        } catch (Throwable t) {
+            System.exit(3);
+        }
+    }
+
+    // Draw a known pattern on an accelerated surface and read it back
+    private static boolean drawsCorrectly() {
+        GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDefaultConfiguration();
+        VolatileImage image = gc.createCompatibleVolatileImage(64, 64, Transparency.OPAQUE);
+        try {
+            for (int attempt = 0; attempt < 3; attempt++) {
+                image.validate(gc);
+                Graphics2D g2d = image.createGraphics();
+                g2d.setColor(Color.BLUE);
+                g2d.fillRect(0, 0, 64, 64);
+                g2d.setColor(Color.RED);
+                g2d.fillOval(16, 16, 32, 32);
+                g2d.dispose();
+                if (image.contentsLost()) {
+                    continue;
+                }
+                BufferedImage snapshot = image.getSnapshot();
+                return (snapshot.getRGB(2, 2) & 0xffffff) == 0x0000ff
+                        && (snapshot.getRGB(32, 32) & 0xffffff) == 0xff0000;
+            }
+            return false;
+        } finally {
+            image.flush();
+        }
+    }
+
+    /**
+     * The cached pipeline for this machine, or null if there is none or it was
+     * measured with another OS or Java version.
+     */
+    public static Pipeline getCachedPipeline() {
+        Properties props = new Properties();
+        if (!CACHE_FILE.exists()) {
+            return null;
+        }
+        try (FileInputStream fis = new FileInputStream(CACHE_FILE)) {
+            props.load(fis);
+        } catch (IOException e) {
+            System.err.println("Error loading pipeline cache: " + e.getMessage());
+            return null;
+        }
+        if (!getMachineKey().equals(props.getProperty("machine"))) {
+            return null;
+        }
+        try {
+            return Pipeline.valueOf(props.getProperty("pipeline", ""));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public static void saveCachedPipeline(Pipeline pipeline) {
+        Properties props = new Properties();
+        props.setProperty("machine", getMachineKey());
+        props.setProperty("pipeline", pipeline.name());
+        CACHE_FILE.getParentFile().mkdirs();
+        try (FileOutputStream fos = new FileOutputStream(CACHE_FILE)) {
+            props.store(fos, "Math Catcher Java2D pipeline");
+        } catch (IOException e) {
+            System.err.println("Error saving pipeline cache: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Try every candidate pipeline in a child JVM and return the fastest that
+     * works, or SOFTWARE (the first candidate on macOS) if none does.
+     * launchPrefix is the java command and the class or module path options
+     * of this application, probeMain what starts this class after them.
+     */
+    public static Pipeline probe(List<String> launchPrefix, String probeMain) {
+        List<Pipeline> candidates = Pipeline.candidates();
+        Pipeline best = null;
+        long bestNanos = Long.MAX_VALUE;
+        for (Pipeline pipeline : candidates) {
+            long nanos = runChild(launchPrefix, probeMain, pipeline);
+            if (nanos < bestNanos) {
+                bestNanos = nanos;
+                best = pipeline;
+            }
+        }
+        return best != null ? best : candidates.get(0);
+    }
+
+    // Frame time measured by a child JVM on the pipeline, Long.MAX_VALUE if it failed
+    private static long runChild(List<String> launchPrefix, String probeMain, Pipeline pipeline) {
+        List<String> command = new ArrayList<>();
+        command.add(launchPrefix.get(0));
+        command.addAll(pipeline.getJvmOptions());
+        command.addAll(launchPrefix.subList(1, launchPrefix.size()));
+        command.add(probeMain);
+
+        Process process;
+        try {
+            process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        } catch (IOException e) {
+            return Long.MAX_VALUE;
+        }
+
+        try {
+            // Drain the output on a thread so a chatty child cannot block on a full pipe
+            List<String> lines = Collections.synchronizedList(new ArrayList<>());
+            Thread reader = new Thread(() -> {
+                try (BufferedReader in = new BufferedReader(
+                        new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = in.readLine()) != null) {
+                        lines.add(line);
+                    }
+                } catch (IOException e) {
+                    // Child died; its exit code tells
+                }
+            }, "pipeline-probe-" + pipeline.name().toLowerCase());
+            reader.setDaemon(true);
+            reader.start();
+
+            if (!process.waitFor(CHILD_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                return Long.MAX_VALUE;
+            }
+            reader.join(1000);
+            if (process.exitValue() != 0) {
+                return Long.MAX_VALUE;
+            }
+            synchronized (lines) {
+                for (String line : lines) {
+                    if (line.startsWith(RESULT_PREFIX)) {
+                        return Long.parseLong(line.substring(RESULT_PREFIX.length()).trim());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        } catch (NumberFormatException e) {
+            // Garbled output counts as a failure
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private static String getMachineKey() {
+        return System.getProperty("os.name") + "/" + System.getProperty("os.arch")
+                + "/" + System.getProperty("java.version");
+    }
+
+    private static boolean isWindows() {
+        return System.getProperty("os.name", "").toLowerCase().startsWith("windows");
+    }
+}
@@ -0,0 +1,113 @@
+package com.mathcatcher.render;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.Arrays;
+
+/**
+ * Short startup benchmark that picks a QualityTier for this machine.
+ *
+ * Draws a frame's worth of the expensive operations the screens use at HIGH
+ * quality (antialiased shapes and text, a translucent full-screen fill, a
+ * gradient) into an off-screen surface of the screen's kind, and times it.
+ * Takes about half a second at most; run it off the EDT.
+ */
+public class QualityBenchmark {
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+    private static final int WARMUP_FRAMES = 10;
+    private static final int FRAMES = 15;
+    // The first frames pay for class loading and the interpreter, so warm-up is time boxed too
+    private static final long WARMUP_LIMIT_NANOS = 200_000_000L;
+    private static final long TIME_LIMIT_NANOS = 300_000_000L;
+
+    // Median frame time under which a tier can keep 60 FPS with room for the game itself
+    private static final long HIGH_MAX_NANOS = 4_000_000L;
+    private static final long MEDIUM_MAX_NANOS = 10_000_000L;
+
+    public static QualityTier pickTier() {
+        long frameNanos = measureFrameNanos();
+        if (frameNanos <= HIGH_MAX_NANOS) {
+            return QualityTier.HIGH;
+        }
+        if (frameNanos <= MEDIUM_MAX_NANOS) {
+            return QualityTier.MEDIUM;
+        }
+        return QualityTier.LOW;
+    }
+
+    // Median time of one benchmark frame
+    public static long measureFrameNanos() {
+        Image surface = createSurface();
+        try {
+            long deadline = System.nanoTime() + WARMUP_LIMIT_NANOS;
+            for (int i = 0; i < WARMUP_FRAMES && System.nanoTime() < deadline; i++) {
+                drawFrame(surface, i);
+            }
+            Toolkit.getDefaultToolkit().sync();
+
+            long[] times = new long[FRAMES];
+            int count = 0;
+            deadline = System.nanoTime() + TIME_LIMIT_NANOS;
+            // At least three frames, so one hiccup cannot decide the tier
+            while (count < FRAMES && (count < 3 || System.nanoTime() < deadline)) {
+                long start = System.nanoTime();
+                drawFrame(surface, count);
+                Toolkit.getDefaultToolkit().sync();
+                times[count++] = System.nanoTime() - start;
+            }
+            Arrays.sort(times, 0, count);
+            return times[count / 2];
+        } finally {
+            surface.flush();
+        }
+    }
+
+    // A VolatileImage where the screen is accelerated, otherwise a plain image like headless rendering
+    private static Image createSurface() {
+        if (!GraphicsEnvironment.isHeadless()) {
+            GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            return gc.createCompatibleVolatileImage(WIDTH, HEIGHT, Transparency.OPAQUE);
+        }
+        return new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+    }
+
+    private static void drawFrame(Image surface, int frame) {
+        if (surface instanceof VolatileImage) {
+            ((VolatileImage) surface).validate(null);
+        }
+        Graphics2D g2d = (Graphics2D) surface.getGraphics();
+        try {
+            QualityTier.HIGH.applyHints(g2d);
+
+            g2d.setPaint(Theme.gradient(0, 0, Theme.color(135, 206, 250), 0, HEIGHT, Theme.color(176, 224, 230)));
+            g2d.fillRect(0, 0, WIDTH, HEIGHT);
+
+            // Falling numbers as shapes, with their labels
+            g2d.setFont(Theme.font("Arial", Font.BOLD, 24));
+            for (int i = 0; i < 40; i++) {
+                int x = (i * 97 + frame * 7) % (WIDTH - 50);
+                int y = (i * 53 + frame * 11) % (HEIGHT - 50);
+                g2d.setColor(Theme.color(0, 0, 0, 50));
+                g2d.fillOval(x + 3, y + 3, 45, 45);
+                g2d.setColor(Theme.color(255, 215, 0));
+                g2d.fillOval(x, y, 45, 45);
+                g2d.setColor(Theme.color(218, 165, 32));
+                g2d.setStroke(Theme.stroke(3));
+                g2d.drawOval(x, y, 45, 45);
+                g2d.setColor(Color.BLACK);
+                g2d.drawString(Integer.toString(i), x + 12, y + 30);
+            }
+
+            // Pause overlay
+            g2d.setColor(Theme.color(0, 0, 0, 150));
+            g2d.fillRect(0, 0, WIDTH, HEIGHT);
+            g2d.setColor(Theme.color(0, 0, 0, 200));
+            g2d.fillRoundRect(WIDTH / 2 - 150, HEIGHT / 2 - 150, 300, 250, 20, 20);
+        } finally {
+            g2d.dispose();
+        }
+    }
+}
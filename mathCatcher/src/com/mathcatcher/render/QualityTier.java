@@ -0,0 +1,91 @@
+package com.mathcatcher.render;
+
+import com.mathcatcher.utils.GraphicsSettings;
+
+import java.awt.*;
+
+/**
+ * How much rendering work the screens may do.
+ *
+ * HIGH is what the game always used to draw. MEDIUM keeps antialiasing and
+ * translucency but drops the decorative shadows and glows and asks for speed
+ * over quality. LOW is for software pipelines on weak machines: no
+ * antialiasing, no translucent fills or gradients (flat colors instead), no
+ * shadows.
+ *
+ * The tier is chosen at first start by QualityBenchmark and kept in
+ * settings.properties; see GraphicsSettings.
+ */
+public enum QualityTier {
+    LOW(false, false, false, false, false),
+    MEDIUM(true, true, true, false, true),
+    HIGH(true, true, true, true, true);
+
+    private final boolean antialiasing;
+    private final boolean textAntialiasing;
+    private final boolean translucency;
+    private final boolean shadows;
+    private final boolean gradients;
+
+    QualityTier(boolean antialiasing, boolean textAntialiasing, boolean translucency,
+                boolean shadows, boolean gradients) {
+        this.antialiasing = antialiasing;
+        this.textAntialiasing = textAntialiasing;
+        this.translucency = translucency;
+        this.shadows = shadows;
+        this.gradients = gradients;
+    }
+
+    // The tier in effect
+    public static QualityTier current() {
+        return GraphicsSettings.getQualityTier();
+    }
+
+    // Set antialiasing, text antialiasing and the rendering preference for this tier
+    public void applyHints(Graphics2D g2d) {
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, antialiasing
+                ? RenderingHints.VALUE_ANTIALIAS_ON : RenderingHints.VALUE_ANTIALIAS_OFF);
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, textAntialiasing
+                ? RenderingHints.VALUE_TEXT_ANTIALIAS_ON : RenderingHints.VALUE_TEXT_ANTIALIAS_OFF);
+        g2d.setRenderingHint(RenderingHints.KEY_RENDERING, this == HIGH
+                ? RenderingHints.VALUE_RENDER_QUALITY : RenderingHints.VALUE_RENDER_SPEED);
+    }
+
+    public boolean isAntialiasing() {
+        return antialiasing;
+    }
+
+    public boolean isTextAntialiasing() {
+        return textAntialiasing;
+    }
+
+    // Alpha blended fills and composites (overlays, glows)
+    public boolean isTranslucency() {
+        return translucency;
+    }
+
+    // Drop shadows and hover glows
+    public boolean isShadows() {
+        return shadows;
+    }
+
+    public boolean isGradients() {
+        return gradients;
+    }
+
+    // The color with its alpha, or opaque when this tier does not blend
+    public Color color(int r, int g, int b, int a) {
+        return translucency ? Theme.color(r, g, b, a) : Theme.color(r, g, b);
+    }
+
+    // A two-color gradient, or the color halfway between when this tier has no gradients
+    public Paint gradient(float x1, float y1, Color color1, float x2, float y2, Color color2) {
+        if (gradients) {
+            return Theme.gradient(x1, y1, color1, x2, y2, color2);
+        }
+        return Theme.color((color1.getRed() + color2.getRed()) / 2,
+                (color1.getGreen() + color2.getGreen()) / 2,
+                (color1.getBlue() + color2.getBlue()) / 2,
+                (color1.getAlpha() + color2.getAlpha()) / 2);
+    }
+}
@@ -0,0 +1,137 @@
+package com.mathcatcher.render;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Picks the internal render scale from measured paint times.
+ *
+ * Each frame's paint time (the drawing only, not the blit that scales it to
+ * the window) goes into a rolling window. Once the window is full its 95th
+ * percentile is checked against the frame budget: over budget steps the
+ * scale down, and enough headroom steps it back up. Stepping up is only
+ * done if the frame would still fit with margin at the bigger size (paint cost
+ * grows with the pixel count, so with the square of the scale). After a change
+ * the window starts over, so every decision is made on frames painted at the
+ * current scale. Together this keeps it from flipping between two steps.
+ *
+ * Called by whoever paints frames (game loop thread or EDT); synchronized.
+ */
+public class RenderScaleController {
+    private static final double[] SCALES = {1.0, 0.85, 0.7, 0.6, 0.5};
+    private static final int WINDOW_SIZE = 120;
+    private static final double UPGRADE_MARGIN = 0.75; // predicted p95 at the bigger scale must be under 75% of budget
+    private static final int MAX_HISTORY = 32;
+
+    /**
+     * One scale change, for diagnostics.
+     */
+    public static class Change {
+        private final long timeMillis;
+        private final double fromScale;
+        private final double toScale;
+        private final long p95Nanos;
+
+        Change(long timeMillis, double fromScale, double toScale, long p95Nanos) {
+            this.timeMillis = timeMillis;
+            this.fromScale = fromScale;
+            this.toScale = toScale;
+            this.p95Nanos = p95Nanos;
+        }
+
+        public long getTimeMillis() {
+            return timeMillis;
+        }
+
+        public double getFromScale() {
+            return fromScale;
+        }
+
+        public double getToScale() {
+            return toScale;
+        }
+
+        // The paint time percentile that triggered the change
+        public long getP95Nanos() {
+            return p95Nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.2f -> %.2f (p95 %.2f ms)", fromScale, toScale, p95Nanos / 1_000_000.0);
+        }
+    }
+
+    private final long budgetNanos;
+    private final long[] window = new long[WINDOW_SIZE];
+    private final long[] sorted = new long[WINDOW_SIZE];
+    private final List<Change> history = new ArrayList<>();
+    private int samples;
+    private int level; // index into SCALES
+    private long lastP95Nanos;
+
+    // Frames have to be painted within 1 / framesPerSecond
+    public RenderScaleController(int framesPerSecond) {
+        if (framesPerSecond <= 0) {
+            throw new IllegalArgumentException("Frames per second must be positive: " + framesPerSecond);
+        }
+        this.budgetNanos = 1_000_000_000L / framesPerSecond;
+    }
+
+    /**
+     * Record how long a frame took to paint. Returns true if the render scale
+     * changed, in which case the next frame should be drawn at getScale().
+     */
+    public synchronized boolean recordFrame(long paintNanos) {
+        window[samples++] = paintNanos;
+        if (samples < WINDOW_SIZE) {
+            return false;
+        }
+        samples = 0;
+
+        System.arraycopy(window, 0, sorted, 0, WINDOW_SIZE);
+        Arrays.sort(sorted);
+        long p95 = sorted[(int) (WINDOW_SIZE * 0.95)];
+        lastP95Nanos = p95;
+
+        if (p95 > budgetNanos && level < SCALES.length - 1) {
+            return setLevel(level + 1, p95);
+        }
+        if (level > 0) {
+            double growth = SCALES[level - 1] / SCALES[level];
+            if (p95 * growth * growth < budgetNanos * UPGRADE_MARGIN) {
+                return setLevel(level - 1, p95);
+            }
+        }
+        return false;
+    }
+
+    private boolean setLevel(int newLevel, long p95) {
+        history.add(new Change(System.currentTimeMillis(), SCALES[level], SCALES[newLevel], p95));
+        if (history.size() > MAX_HISTORY) {
+            history.remove(0);
+        }
+        level = newLevel;
+        return true;
+    }
+
+    // Current render scale, 1.0 = full resolution
+    public synchronized double getScale() {
+        return SCALES[level];
+    }
+
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+
+    // 95th percentile paint time of the last full window
+    public synchronized long getLastP95Nanos() {
+        return lastP95Nanos;
+    }
+
+    // The most recent scale changes, oldest first
+    public synchronized List<Change> getHistory() {
+        return new ArrayList<>(history);
+    }
+}
@@ -0,0 +1,105 @@
+package com.mathcatcher.render;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+/**
+ * A rectangle of the screen that is rasterized once and then blitted until
+ * the value it shows changes.
+ *
+ * Callers pass a key describing the content (a score, a packed set of values)
+ * with every draw; the painter only runs when the key differs from the last
+ * one, or when the Graphics scale or the quality tier changes. The painter
+ * draws in the same coordinates the layer is placed at, so existing drawing
+ * code moves in as is.
+ *
+ * Not thread-safe: each layer belongs to one view and is drawn under its lock.
+ */
+public class RetainedLayer {
+
+    public interface Painter {
+        void paint(Graphics2D g2d);
+    }
+
+    private final int x, y, width, height;
+    private BufferedImage image;
+    private long key;
+    private double scale;
+    private QualityTier tier;
+    // The key last passed to addIfChanged; kept apart from key, which is what was last drawn
+    private long reportedKey;
+    private boolean reported;
+
+    public RetainedLayer(int x, int y, int width, int height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    public void draw(Graphics2D g2d, long key, Painter painter) {
+        AffineTransform transform = g2d.getTransform();
+        double scale = Math.max(Math.abs(transform.getScaleX()), Math.abs(transform.getScaleY()));
+
+        QualityTier tier = QualityTier.current();
+        if (image == null || key != this.key || scale != this.scale || tier != this.tier) {
+            rasterize(g2d.getDeviceConfiguration(), scale, tier, painter);
+            this.key = key;
+            this.scale = scale;
+            this.tier = tier;
+        }
+
+        if (image.getWidth() == width && image.getHeight() == height) {
+            g2d.drawImage(image, x, y, null);
+        } else {
+            g2d.drawImage(image, x, y, width, height, null);
+        }
+    }
+
+    private void rasterize(GraphicsConfiguration gc, double scale, QualityTier tier, Painter painter) {
+        int pixelWidth = (int) Math.ceil(width * scale);
+        int pixelHeight = (int) Math.ceil(height * scale);
+        if (image == null || image.getWidth() != pixelWidth || image.getHeight() != pixelHeight) {
+            image = gc != null
+                    ? gc.createCompatibleImage(pixelWidth, pixelHeight, Transparency.TRANSLUCENT)
+                    : new BufferedImage(pixelWidth, pixelHeight, BufferedImage.TYPE_INT_ARGB);
+        }
+
+        Graphics2D g2d = image.createGraphics();
+        // Reuse the image: clear it to fully transparent first
+        g2d.setComposite(AlphaComposite.Clear);
+        g2d.fillRect(0, 0, pixelWidth, pixelHeight);
+        g2d.setComposite(AlphaComposite.SrcOver);
+
+        tier.applyHints(g2d);
+        g2d.scale(scale, scale);
+        g2d.translate(-x, -y);
+        painter.paint(g2d);
+        g2d.dispose();
+    }
+
+    // True if drawing the layer with key would rasterize it again
+    public boolean isStale(long key) {
+        return image == null || key != this.key;
+    }
+
+    /**
+     * Add the layer's bounds to region if key differs from the one passed
+     * here last time. This tracks what the caller has put in its regions, not
+     * what was drawn: a paint in between (an expose on the EDT) draws the new
+     * value but does not get it onto the caller's own buffer.
+     */
+    public void addIfChanged(long key, DirtyRegion region) {
+        if (!reported || key != reportedKey) {
+            region.add(x, y, width, height);
+            reportedKey = key;
+            reported = true;
+        }
+    }
+
+    // Force a repaint on the next draw
+    public void invalidate() {
+        image = null;
+    }
+}
@@ -0,0 +1,144 @@
+package com.mathcatcher.render;
+
+import java.awt.*;
+import java.awt.image.VolatileImage;
+
+/**
+ * A fixed-size off-screen target that frames are drawn into and then
+ * presented scaled to the window in a single blit.
+ *
+ * Drawing cost (fills, text, sprites) then depends on the logical size only,
+ * not on whether the window is 800x600 or 4K, and layout written for the
+ * logical size fits every window. The target is an accelerated VolatileImage,
+ * so with the OpenGL/Direct3D pipelines the scaling is done by the GPU. The
+ * logical image is centered and letterboxed if the window has another aspect.
+ *
+ * The render scale shrinks the target below the logical size (layout stays
+ * logical, only the pixel count drops) to keep slow machines at frame rate.
+ * When no scaling is needed at all the frame is drawn straight to the window.
+ *
+ * Used from the game loop thread (active rendering) and the EDT (repaints),
+ * so drawing is synchronized.
+ */
+public class ScaledRenderTarget {
+    private final int logicalWidth;
+    private final int logicalHeight;
+    private VolatileImage image;
+    private volatile double renderScale = 1.0;
+
+    public ScaledRenderTarget(int logicalWidth, int logicalHeight) {
+        if (logicalWidth <= 0 || logicalHeight <= 0) {
+            throw new IllegalArgumentException("Logical size must be positive: " + logicalWidth + "x" + logicalHeight);
+        }
+        this.logicalWidth = logicalWidth;
+        this.logicalHeight = logicalHeight;
+    }
+
+    public int getLogicalWidth() {
+        return logicalWidth;
+    }
+
+    public int getLogicalHeight() {
+        return logicalHeight;
+    }
+
+    // Draw at this fraction of the logical size; 1.0 draws at the logical size
+    public synchronized void setRenderScale(double renderScale) {
+        if (renderScale <= 0 || renderScale > 1) {
+            throw new IllegalArgumentException("Render scale must be in (0, 1]: " + renderScale);
+        }
+        this.renderScale = renderScale;
+    }
+
+    public double getRenderScale() {
+        return renderScale;
+    }
+
+    /**
+     * Draw a frame with painter at the logical size (times the render scale)
+     * and show it scaled on g2d, which covers a width x height area.
+     */
+    public synchronized void present(Graphics2D g2d, int width, int height, ActiveRenderer.FramePainter painter) {
+        if (isPassthrough(width, height)) {
+            dispose();
+            painter.paintFrame(g2d);
+            return;
+        }
+
+        GraphicsConfiguration gc = g2d.getDeviceConfiguration();
+        int imageWidth = Math.max(1, (int) Math.round(logicalWidth * renderScale));
+        int imageHeight = Math.max(1, (int) Math.round(logicalHeight * renderScale));
+        do {
+            if (image == null || image.getWidth() != imageWidth || image.getHeight() != imageHeight
+                    || image.validate(gc) == VolatileImage.IMAGE_INCOMPATIBLE) {
+                createImage(gc, imageWidth, imageHeight);
+            }
+
+            Graphics2D target = image.createGraphics();
+            try {
+                if (renderScale != 1.0) {
+                    target.scale((double) imageWidth / logicalWidth, (double) imageHeight / logicalHeight);
+                }
+                painter.paintFrame(target);
+            } finally {
+                target.dispose();
+            }
+        } while (image.contentsLost());
+
+        double scale = getScale(width, height);
+        int scaledWidth = (int) Math.round(logicalWidth * scale);
+        int scaledHeight = (int) Math.round(logicalHeight * scale);
+        int x = (width - scaledWidth) / 2;
+        int y = (height - scaledHeight) / 2;
+
+        if (scaledWidth < width || scaledHeight < height) {
+            g2d.setColor(Color.BLACK);
+            g2d.fillRect(0, 0, width, height);
+        }
+        if (scaledWidth == imageWidth && scaledHeight == imageHeight) {
+            g2d.drawImage(image, x, y, null);
+        } else {
+            // Filtering is free on the GPU but costs more than the frame itself in software
+            Object interpolation = g2d.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, image.getCapabilities().isAccelerated()
+                    ? RenderingHints.VALUE_INTERPOLATION_BILINEAR
+                    : RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+            g2d.drawImage(image, x, y, scaledWidth, scaledHeight, null);
+            if (interpolation != null) {
+                g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+            }
+        }
+    }
+
+    // True if frames for a width x height window are drawn straight to it, without the target
+    public boolean isPassthrough(int width, int height) {
+        return renderScale == 1.0 && width == logicalWidth && height == logicalHeight;
+    }
+
+    // Uniform scale from logical to window pixels
+    public double getScale(int width, int height) {
+        return Math.min((double) width / logicalWidth, (double) height / logicalHeight);
+    }
+
+    // Map a point in a width x height window to logical coordinates
+    public Point toLogical(int x, int y, int width, int height) {
+        double scale = getScale(width, height);
+        int offsetX = (width - (int) Math.round(logicalWidth * scale)) / 2;
+        int offsetY = (height - (int) Math.round(logicalHeight * scale)) / 2;
+        return new Point((int) ((x - offsetX) / scale), (int) ((y - offsetY) / scale));
+    }
+
+    public synchronized void dispose() {
+        if (image != null) {
+            image.flush();
+            image = null;
+        }
+    }
+
+    private void createImage(GraphicsConfiguration gc, int width, int height) {
+        if (image != null) {
+            image.flush();
+        }
+        image = gc.createCompatibleVolatileImage(width, height, Transparency.OPAQUE);
+    }
+}
@@ -0,0 +1,163 @@
+package com.mathcatcher.render;
+
+import java.awt.*;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Shared fonts, colors, strokes, composites and gradients for every screen.
+ *
+ * Paint code asks for the resource it wants instead of constructing it, e.g.
+ * Theme.color(255, 255, 255, 100) or Theme.font("Arial", Font.BOLD, 24). The
+ * first request creates the object, every later one returns the same instance,
+ * and a hit allocates nothing (the lookup reuses a single probe key). Gradients
+ * span a component, so they are cached per size as well as per colors.
+ * Values set up once, like a label's font or a button's colors, are plain
+ * constants of their screen instead.
+ *
+ * Menus paint on the EDT and the game on its loop thread, hence the lock.
+ */
+public class Theme {
+    // Component sizes change rarely, but drop the least recently used rather than grow forever
+    private static final int MAX_ENTRIES = 1024;
+
+    private static final int COLOR = 0;
+    private static final int FONT = 1;
+    private static final int STROKE = 2;
+    private static final int COMPOSITE = 3;
+    private static final int GRADIENT = 4;
+
+    private static final Map<Key, Object> resources = new LinkedHashMap<>(256, 0.75f, true);
+    private static final Key probe = new Key();
+    private static long hits;
+    private static long misses;
+
+    public static Color color(int r, int g, int b) {
+        return color(r, g, b, 255);
+    }
+
+    public static synchronized Color color(int r, int g, int b, int a) {
+        int argb = (a & 0xff) << 24 | (r & 0xff) << 16 | (g & 0xff) << 8 | (b & 0xff);
+        Object color = lookup(COLOR, argb, 0, 0, null);
+        if (color == null) {
+            color = store(new Color(r, g, b, a));
+        }
+        return (Color) color;
+    }
+
+    public static synchronized Font font(String family, int style, int size) {
+        Object font = lookup(FONT, style, size, 0, family);
+        if (font == null) {
+            font = store(new Font(family, style, size));
+        }
+        return (Font) font;
+    }
+
+    public static synchronized BasicStroke stroke(float width) {
+        Object stroke = lookup(STROKE, Float.floatToIntBits(width), 0, 0, null);
+        if (stroke == null) {
+            stroke = store(new BasicStroke(width));
+        }
+        return (BasicStroke) stroke;
+    }
+
+    // Source-over with the given opacity, e.g. for glow passes
+    public static synchronized AlphaComposite composite(float alpha) {
+        Object composite = lookup(COMPOSITE, Float.floatToIntBits(alpha), 0, 0, null);
+        if (composite == null) {
+            composite = store(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
+        }
+        return (AlphaComposite) composite;
+    }
+
+    public static synchronized GradientPaint gradient(float x1, float y1, Color color1,
+                                                      float x2, float y2, Color color2) {
+        Object gradient = lookup(GRADIENT, pack(x1, y1), pack(x2, y2),
+                (long) color1.getRGB() << 32 | (color2.getRGB() & 0xffffffffL), null);
+        if (gradient == null) {
+            gradient = store(new GradientPaint(x1, y1, color1, x2, y2, color2));
+        }
+        return (GradientPaint) gradient;
+    }
+
+    public static synchronized long getHits() {
+        return hits;
+    }
+
+    public static synchronized long getMisses() {
+        return misses;
+    }
+
+    public static synchronized int size() {
+        return resources.size();
+    }
+
+    private static long pack(float x, float y) {
+        return (long) Float.floatToIntBits(x) << 32 | (Float.floatToIntBits(y) & 0xffffffffL);
+    }
+
+    // Fill in the probe and look it up; store() files the value under a copy of the probe
+    private static Object lookup(int kind, long a, long b, long c, Object ref) {
+        probe.set(kind, a, b, c, ref);
+        Object value = resources.get(probe);
+        if (value != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return value;
+    }
+
+    private static Object store(Object value) {
+        if (resources.size() >= MAX_ENTRIES) {
+            Iterator<Object> eldest = resources.values().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+        resources.put(probe.copy(), value);
+        return value;
+    }
+
+    private static final class Key {
+        private int kind;
+        private long a, b, c;
+        private Object ref;
+        private int hash;
+
+        void set(int kind, long a, long b, long c, Object ref) {
+            this.kind = kind;
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.ref = ref;
+            long h = kind;
+            h = h * 31 + a;
+            h = h * 31 + b;
+            h = h * 31 + c;
+            hash = (int) (h ^ (h >>> 32)) * 31 + Objects.hashCode(ref);
+        }
+
+        Key copy() {
+            Key key = new Key();
+            key.set(kind, a, b, c, ref);
+            return key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return kind == other.kind && a == other.a && b == other.b && c == other.c
+                    && Objects.equals(ref, other.ref);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.mathcatcher.render;
+
+import javax.swing.JPanel;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+/**
+ * A screen title (big gradient text plus subtitle) that is rasterized once.
+ *
+ * Outlining 64 pt text and filling it with a multi-stop gradient is about the
+ * most expensive thing Java2D does, and the menus used to do it on every
+ * repaint, including every button hover below the title. This panel runs the
+ * painter into a translucent compatible image when its size (or the screen
+ * scale, or the quality tier) changes and just blits that image otherwise.
+ * Call invalidateImage() after changing anything the painter draws.
+ */
+public class TitlePanel extends JPanel {
+
+    public interface Painter {
+        // Draw the title into a width x height area
+        void paint(Graphics2D g2d, int width, int height);
+    }
+
+    private final Painter painter;
+    private BufferedImage image;
+    private double scale;
+    private QualityTier tier;
+
+    public TitlePanel(Painter painter) {
+        this.painter = painter;
+        setOpaque(false);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+
+        Graphics2D g2d = (Graphics2D) g;
+        AffineTransform transform = g2d.getTransform();
+        double scale = Math.max(Math.abs(transform.getScaleX()), Math.abs(transform.getScaleY()));
+        int pixelWidth = (int) Math.ceil(width * scale);
+        int pixelHeight = (int) Math.ceil(height * scale);
+
+        QualityTier tier = QualityTier.current();
+        if (image == null || scale != this.scale || tier != this.tier
+                || image.getWidth() != pixelWidth || image.getHeight() != pixelHeight) {
+            image = rasterize(g2d.getDeviceConfiguration(), width, height, scale, tier, pixelWidth, pixelHeight);
+            this.scale = scale;
+            this.tier = tier;
+        }
+
+        if (pixelWidth == width && pixelHeight == height) {
+            g2d.drawImage(image, 0, 0, null);
+        } else {
+            g2d.drawImage(image, 0, 0, width, height, null);
+        }
+    }
+
+    private BufferedImage rasterize(GraphicsConfiguration gc, int width, int height, double scale,
+                                    QualityTier tier, int pixelWidth, int pixelHeight) {
+        BufferedImage image = gc != null
+                ? gc.createCompatibleImage(pixelWidth, pixelHeight, Transparency.TRANSLUCENT)
+                : new BufferedImage(pixelWidth, pixelHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = image.createGraphics();
+        tier.applyHints(g2d);
+        g2d.scale(scale, scale);
+        painter.paint(g2d, width, height);
+        g2d.dispose();
+        return image;
+    }
+
+    // Drop the cached image, e.g. after the title text or font changed
+    public void invalidateImage() {
+        image = null;
+        repaint();
+    }
+}
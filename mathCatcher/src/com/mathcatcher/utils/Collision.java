@@ -0,0 +1,60 @@
+package com.mathcatcher.utils;
+
+// Allocation-free bounding box tests on plain coordinates
+public class Collision {
+
+    /**
+     * True if the two axis-aligned boxes overlap. Boxes that only touch along an
+     * edge do not count, which matches java.awt.Rectangle.intersects.
+     */
+    public static boolean intersects(int ax, int ay, int aWidth, int aHeight,
+                                     int bx, int by, int bWidth, int bHeight) {
+        return ax < bx + bWidth && bx < ax + aWidth
+                && ay < by + bHeight && by < ay + aHeight;
+    }
+
+    /**
+     * True if box a, moving from (ax0, ay0) to (ax1, ay1), overlaps box b, moving
+     * from (bx0, by0) to (bx1, by1), at any point during the step. Both are
+     * assumed to move in a straight line at constant speed, so this catches a
+     * fast box jumping clean over the other between two ticks. At either end of
+     * the step it agrees with intersects(); touching edges still do not count.
+     */
+    public static boolean sweptIntersects(int ax0, int ay0, int ax1, int ay1, int aWidth, int aHeight,
+                                          int bx0, int by0, int bx1, int by1, int bWidth, int bHeight) {
+        // Work in b's frame of reference: b stands still and a moves by the difference
+        double rx = ax0 - bx0;
+        double ry = ay0 - by0;
+        double dx = (ax1 - ax0) - (bx1 - bx0);
+        double dy = (ay1 - ay0) - (by1 - by0);
+
+        // On each axis the boxes overlap while -aSize < r + d * t < bSize, an open
+        // interval of t. Intersect both axes, then check it reaches into [0, 1].
+        double enter = Double.NEGATIVE_INFINITY;
+        double exit = Double.POSITIVE_INFINITY;
+
+        if (dx == 0) {
+            if (rx <= -aWidth || rx >= bWidth) {
+                return false;
+            }
+        } else {
+            double t1 = (-aWidth - rx) / dx;
+            double t2 = (bWidth - rx) / dx;
+            enter = Math.max(enter, Math.min(t1, t2));
+            exit = Math.min(exit, Math.max(t1, t2));
+        }
+
+        if (dy == 0) {
+            if (ry <= -aHeight || ry >= bHeight) {
+                return false;
+            }
+        } else {
+            double t1 = (-aHeight - ry) / dy;
+            double t2 = (bHeight - ry) / dy;
+            enter = Math.max(enter, Math.min(t1, t2));
+            exit = Math.min(exit, Math.max(t1, t2));
+        }
+
+        return enter < exit && enter < 1 && exit > 0;
+    }
+}
@@ -0,0 +1,142 @@
+package com.mathcatcher.utils;
+
+import com.mathcatcher.render.QualityBenchmark;
+import com.mathcatcher.render.QualityTier;
+
+import java.io.*;
+import java.util.Properties;
+
+public class GraphicsSettings {
+    private static final String CONFIG_FILE = "settings.properties";
+    private static final String ACTIVE_RENDERING_KEY = "graphics.activeRendering";
+    private static final String LOGICAL_RESOLUTION_KEY = "graphics.logicalResolution";
+    private static final String DYNAMIC_RESOLUTION_KEY = "graphics.dynamicResolution";
+    private static final String QUALITY_KEY = "graphics.quality";
+
+    private static boolean activeRendering;
+    private static boolean logicalResolution;
+    private static boolean dynamicResolution;
+    private static volatile QualityTier qualityTier; // null until picked
+
+    static {
+        loadSettings();
+    }
+
+    /**
+     * Whether the gameplay screen renders on the game loop thread into its own
+     * back buffer instead of going through Swing's repaint(). Off by default.
+     */
+    public static boolean isActiveRendering() {
+        return activeRendering;
+    }
+
+    public static void setActiveRendering(boolean enabled) {
+        activeRendering = enabled;
+        saveSettings();
+    }
+
+    /**
+     * Whether the gameplay screen is drawn at a fixed logical resolution
+     * (600 pixels high) and scaled to the window in one blit, instead of
+     * being drawn at the window size. Off by default.
+     */
+    public static boolean isLogicalResolution() {
+        return logicalResolution;
+    }
+
+    public static void setLogicalResolution(boolean enabled) {
+        logicalResolution = enabled;
+        saveSettings();
+    }
+
+    /**
+     * Whether the gameplay screen lowers its internal render resolution when
+     * frames take too long to paint, and raises it again when they are fast.
+     * Off by default.
+     */
+    public static boolean isDynamicResolution() {
+        return dynamicResolution;
+    }
+
+    public static void setDynamicResolution(boolean enabled) {
+        dynamicResolution = enabled;
+        saveSettings();
+    }
+
+    /**
+     * The rendering quality tier. On first start (nothing saved yet) it is
+     * picked by a short benchmark and saved, so later starts skip that.
+     */
+    public static QualityTier getQualityTier() {
+        QualityTier tier = qualityTier;
+        if (tier == null) {
+            tier = pickQualityTier();
+        }
+        return tier;
+    }
+
+    private static synchronized QualityTier pickQualityTier() {
+        if (qualityTier == null) {
+            qualityTier = QualityBenchmark.pickTier();
+            saveSettings();
+        }
+        return qualityTier;
+    }
+
+    public static void setQualityTier(QualityTier tier) {
+        qualityTier = tier;
+        saveSettings();
+    }
+
+    private static void loadSettings() {
+        Properties props = new Properties();
+        File configFile = new File(CONFIG_FILE);
+
+        if (configFile.exists()) {
+            try (FileInputStream fis = new FileInputStream(configFile)) {
+                props.load(fis);
+            } catch (IOException e) {
+                System.err.println("Error loading graphics settings: " + e.getMessage());
+            }
+        }
+
+        activeRendering = Boolean.parseBoolean(props.getProperty(ACTIVE_RENDERING_KEY, "false"));
+        logicalResolution = Boolean.parseBoolean(props.getProperty(LOGICAL_RESOLUTION_KEY, "false"));
+        dynamicResolution = Boolean.parseBoolean(props.getProperty(DYNAMIC_RESOLUTION_KEY, "false"));
+
+        String quality = props.getProperty(QUALITY_KEY);
+        if (quality != null) {
+            try {
+                qualityTier = QualityTier.valueOf(quality.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.err.println("Unknown graphics quality '" + quality + "', measuring again");
+            }
+        }
+    }
+
+    private static synchronized void saveSettings() {
+        // settings.properties is shared with ResolutionManager, so keep its keys
+        Properties props = new Properties();
+        File configFile = new File(CONFIG_FILE);
+        if (configFile.exists()) {
+            try (FileInputStream fis = new FileInputStream(configFile)) {
+                props.load(fis);
+            } catch (IOException e) {
+                System.err.println("Error loading graphics settings: " + e.getMessage());
+            }
+        }
+
+        props.setProperty(ACTIVE_RENDERING_KEY, String.valueOf(activeRendering));
+        props.setProperty(LOGICAL_RESOLUTION_KEY, String.valueOf(logicalResolution));
+        props.setProperty(DYNAMIC_RESOLUTION_KEY, String.valueOf(dynamicResolution));
+        if (qualityTier != null) {
+            props.setProperty(QUALITY_KEY, qualityTier.name());
+        }
+
+        try (FileOutputStream fos = new FileOutputStream(CONFIG_FILE)) {
+            props.store(fos, "Math Catcher Settings");
+        } catch (IOException e) {
+            System.err.println("Error saving graphics settings: " + e.getMessage());
+        }
+    }
+}
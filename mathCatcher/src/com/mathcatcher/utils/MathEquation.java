@@ -18,7 +18,12 @@ public class MathEquation {
     }
 
     public MathEquation(int level, DifficultySelect.Difficulty difficulty) {
-        rand = new Random();
+        this(level, difficulty, new Random());
+    }
+
+    // Shares the caller's Random, so a seeded game produces the same equations every run
+    public MathEquation(int level, DifficultySelect.Difficulty difficulty, Random rand) {
+        this.rand = rand;
         generateEquation(level, difficulty);
     }
 
@@ -153,6 +158,32 @@ public class MathEquation {
         return answer;
     }
 
+    // The parts of toString(), for drawing the equation without building the string:
+    // "num1 symbol num2 = ?" or, if complex, "num1 symbol num2 symbol2 num3 = ?"
+    public int getNum1() {
+        return num1;
+    }
+
+    public int getNum2() {
+        return num2;
+    }
+
+    public int getNum3() {
+        return num3;
+    }
+
+    public boolean isComplex() {
+        return isComplex;
+    }
+
+    public char getSymbol() {
+        return getDisplaySymbol(operation).charAt(0);
+    }
+
+    public char getSymbol2() {
+        return isComplex ? getDisplaySymbol(operation2).charAt(0) : 0;
+    }
+
     private String getDisplaySymbol(String op) {
         switch(op) {
             case "*":
@@ -5,12 +5,14 @@ import java.io.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class ResolutionManager {
     private static final String CONFIG_FILE = "settings.properties";
     private static final List<Dimension> AVAILABLE_RESOLUTIONS = new ArrayList<>();
     private static Dimension currentResolution;
     private static final Dimension DEFAULT_RESOLUTION = new Dimension(800, 600);
+    private static final List<Runnable> resolutionListeners = new CopyOnWriteArrayList<>();
 
     static {
         // Add common 4:3 resolutions
@@ -49,8 +51,23 @@ public class ResolutionManager {
     }
 
     public static void setResolution(Dimension resolution) {
+        boolean changed = !resolution.equals(currentResolution);
         currentResolution = resolution;
         saveResolution();
+        if (changed) {
+            for (Runnable listener : resolutionListeners) {
+                listener.run();
+            }
+        }
+    }
+
+    // Called after setResolution switches to a different size (caches sized to the screen)
+    public static void addResolutionListener(Runnable listener) {
+        resolutionListeners.add(listener);
+    }
+
+    public static void removeResolutionListener(Runnable listener) {
+        resolutionListeners.remove(listener);
     }
 
     public static void setResolution(int width, int height) {
@@ -103,7 +120,16 @@ public class ResolutionManager {
     }
 
     private static void saveResolution() {
+        // settings.properties also holds the graphics settings, so keep the other keys
         Properties props = new Properties();
+        File configFile = new File(CONFIG_FILE);
+        if (configFile.exists()) {
+            try (FileInputStream fis = new FileInputStream(configFile)) {
+                props.load(fis);
+            } catch (IOException e) {
+                System.err.println("Error loading resolution settings: " + e.getMessage());
+            }
+        }
         props.setProperty("resolution.width", String.valueOf(currentResolution.width));
         props.setProperty("resolution.height", String.valueOf(currentResolution.height));
 
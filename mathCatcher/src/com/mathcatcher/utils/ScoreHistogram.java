@@ -0,0 +1,94 @@
+package com.mathcatcher.utils;
+
+/**
+ * How many games ended with each score, for rank and percentile queries.
+ *
+ * A Fenwick (binary indexed) tree over score values: adding a game and
+ * counting the games above or below a score are both O(log of the highest
+ * score), independent of how many games were played. The tree starts small
+ * and doubles when a higher score comes in; doubling a power-of-two Fenwick
+ * tree only needs its new top node set, so growing costs no rebuild. Scores
+ * the game cannot produce are clamped: negative ones count as 0, absurdly
+ * high ones (a damaged file) as MAX_SCORE.
+ *
+ * Scores below EXACT_SCORES each get their own slot. Higher ones share
+ * slots BUCKET_SIZE scores wide and count as ties within a slot, so a single
+ * score near MAX_SCORE grows the tree to 128k slots (512 KB) instead of 16M.
+ *
+ * Not thread-safe; ScoreManager serializes access.
+ */
+public class ScoreHistogram {
+    public static final int MAX_SCORE = (1 << 24) - 1;
+    public static final int EXACT_SCORES = 1 << 16;
+    private static final int BUCKET_SHIFT = 10;
+    public static final int BUCKET_SIZE = 1 << BUCKET_SHIFT;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // 1-based; node i holds the count of slots in (i - lowbit(i), i], shifted by one
+    private int[] tree = new int[INITIAL_CAPACITY + 1];
+    private int total;
+
+    public void add(int score) {
+        int index = slot(score) + 1;
+        while (index >= tree.length) {
+            grow();
+        }
+        for (; index < tree.length; index += index & -index) {
+            tree[index]++;
+        }
+        total++;
+    }
+
+    // Games counted so far
+    public int getTotal() {
+        return total;
+    }
+
+    // Games with a score of at most score
+    public int countAtMost(int score) {
+        if (score < 0) {
+            return 0;
+        }
+        return countSlotsBelow(slot(score) + 1);
+    }
+
+    // Games with a score strictly below score
+    public int countBelow(int score) {
+        if (score <= 0) {
+            return 0;
+        }
+        return countSlotsBelow(slot(score));
+    }
+
+    // Games with a score strictly above score
+    public int countAbove(int score) {
+        return total - countAtMost(score);
+    }
+
+    // Games whose slot is below slot
+    private int countSlotsBelow(int slot) {
+        int index = Math.min(slot, tree.length - 1);
+        int count = 0;
+        for (; index > 0; index -= index & -index) {
+            count += tree[index];
+        }
+        return count;
+    }
+
+    private static int slot(int score) {
+        int clamped = Math.max(0, Math.min(score, MAX_SCORE));
+        if (clamped < EXACT_SCORES) {
+            return clamped;
+        }
+        return EXACT_SCORES + ((clamped - EXACT_SCORES) >> BUCKET_SHIFT);
+    }
+
+    // Double the capacity; the new top node covers every score so far
+    private void grow() {
+        int capacity = tree.length - 1;
+        int[] grown = new int[2 * capacity + 1];
+        System.arraycopy(tree, 0, grown, 0, tree.length);
+        grown[2 * capacity] = total;
+        tree = grown;
+    }
+}
@@ -0,0 +1,185 @@
+package com.mathcatcher.utils;
+
+import com.mathcatcher.game.DifficultySelect;
+import com.mathcatcher.utils.ScoreManager.ScoreEntry;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * The score history on disk: an append-only file of fixed-width records.
+ *
+ * The file starts with the magic "MCSL" and a format version. Each record is
+ * RECORD_SIZE bytes, big endian: score (int), epoch millis (long), difficulty
+ * ordinal (int) and a CRC32 of those 16 bytes (int). A finished game appends
+ * one record, so saving costs the same however long the history is. Records
+ * cut short by a crash or failing their checksum are skipped when reading and
+ * dropped by the next rewrite. Appends are flushed to disk before they
+ * return, and a rewrite goes to a temporary file that replaces the log only
+ * once it is complete, so a crash never costs more than the record being
+ * written.
+ *
+ * Not thread-safe; ScoreManager serializes access.
+ */
+public class ScoreLog {
+    public static final int RECORD_SIZE = 20;
+
+    private static final int MAGIC = 0x4D43534C; // "MCSL"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    // First two bytes of a Java serialization stream, which older versions wrote
+    private static final int SERIALIZED_MAGIC = 0xACED;
+
+    private final File file;
+    private final File tempFile;
+    private int damagedRecords;
+
+    public ScoreLog(File file) {
+        this.file = file;
+        this.tempFile = new File(file.getPath() + ".tmp");
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    // True if the file holds a Java-serialized score list from an older version
+    public boolean isLegacy() throws IOException {
+        if (file.length() < 2) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return in.readUnsignedShort() == SERIALIZED_MAGIC;
+        }
+    }
+
+    // The entries of a legacy (serialized) file
+    @SuppressWarnings("unchecked")
+    public List<ScoreEntry> readLegacy() throws IOException {
+        try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            return new ArrayList<>((List<ScoreEntry>) ois.readObject());
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Not a score list: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * All intact records, oldest first. An empty or missing file is an empty
+     * history; see getDamagedRecords() for what was skipped.
+     */
+    public List<ScoreEntry> read() throws IOException {
+        damagedRecords = 0;
+        List<ScoreEntry> entries = new ArrayList<>();
+        if (file.length() == 0) {
+            return entries;
+        }
+
+        DifficultySelect.Difficulty[] difficulties = DifficultySelect.Difficulty.values();
+        byte[] record = new byte[RECORD_SIZE];
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (file.length() < HEADER_SIZE || in.readInt() != MAGIC) {
+                throw new IOException("Not a score log: " + file);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported score log version " + version);
+            }
+
+            long remaining = file.length() - HEADER_SIZE;
+            while (remaining >= RECORD_SIZE) {
+                in.readFully(record);
+                remaining -= RECORD_SIZE;
+
+                crc.reset();
+                crc.update(record, 0, RECORD_SIZE - 4);
+                int score = buffer.getInt(0);
+                long millis = buffer.getLong(4);
+                int difficulty = buffer.getInt(12);
+                if ((int) crc.getValue() != buffer.getInt(16) || difficulty < 0 || difficulty >= difficulties.length) {
+                    damagedRecords++;
+                    continue;
+                }
+                entries.add(new ScoreEntry(score, new Date(millis), difficulties[difficulty]));
+            }
+            if (remaining > 0) {
+                // Torn write at the end
+                damagedRecords++;
+            }
+        }
+        return entries;
+    }
+
+    // Records skipped by the last read()
+    public int getDamagedRecords() {
+        return damagedRecords;
+    }
+
+    // Append records and flush them to disk, creating the file with its header first if needed
+    public void append(List<ScoreEntry> entries) throws IOException {
+        boolean isNew = file.length() == 0;
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            ByteBuffer buffer = ByteBuffer.allocate((isNew ? HEADER_SIZE : 0) + entries.size() * RECORD_SIZE);
+            if (isNew) {
+                putHeader(buffer);
+            }
+            for (ScoreEntry entry : entries) {
+                putRecord(buffer, entry);
+            }
+            // A single write, so a crash leaves at most a torn tail, which the next load drops
+            out.write(buffer.array());
+            out.getFD().sync();
+        }
+    }
+
+    /**
+     * Replace the file with exactly these entries: they are written to a
+     * temporary file next to the log, flushed to disk, and moved over the log
+     * in one step.
+     */
+    public void rewrite(List<ScoreEntry> entries) throws IOException {
+        try (FileOutputStream fos = new FileOutputStream(tempFile);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos))) {
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            for (ScoreEntry entry : entries) {
+                buffer.clear();
+                putRecord(buffer, entry);
+                out.write(buffer.array());
+            }
+            out.flush();
+            fos.getFD().sync();
+        }
+        try {
+            Files.move(tempFile.toPath(), file.toPath(),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void putHeader(ByteBuffer buffer) {
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+    }
+
+    private static void putRecord(ByteBuffer buffer, ScoreEntry entry) {
+        int start = buffer.position();
+        buffer.putInt(entry.getScore());
+        buffer.putLong(entry.getDate().getTime());
+        buffer.putInt(entry.getDifficulty().ordinal());
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), start, RECORD_SIZE - 4);
+        buffer.putInt((int) crc.getValue());
+    }
+}
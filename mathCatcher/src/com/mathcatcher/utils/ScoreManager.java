@@ -2,16 +2,75 @@ package com.mathcatcher.utils;
 
 import com.mathcatcher.game.DifficultySelect;
 import java.io.*;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.*;
 
+/**
+ * Keeps every finished game and answers leaderboard queries.
+ *
+ * The history lives in memory and in a ScoreLog on disk. Submitting a score
+ * only updates memory and queues the game; a single background writer appends
+ * queued games to the log, so the game-over screen never waits on the disk
+ * and gets its rank straight away. A log with damaged records, or a scores.dat
+ * written by an older version (a serialized list), is read in full at first
+ * use and then rewritten as a clean log by the writer before any append. A
+ * file that cannot be read at all is kept aside instead of being overwritten.
+ * Queued games are flushed when the JVM exits.
+ *
+ * Leaderboards are answered from indexes kept up to date as games come in:
+ * the top 10 of each difficulty for all time, and the top 10 of each
+ * difficulty for every day games were played, so a leaderboard for today, a
+ * week or any range of days merges only the days in range.
+ */
 public class ScoreManager {
-    private static final String SCORE_FILE = "scores.dat";
+    // Can be pointed elsewhere with -Dmathcatcher.scoreFile=... (benchmarks, test runs)
+    private static final String SCORE_FILE = System.getProperty("mathcatcher.scoreFile", "scores.dat");
     private static final int MAX_SCORES_PER_DIFFICULTY = 10;
-    
-    private static List<ScoreEntry> scores = new ArrayList<>();
-    
+    // Longest an exit waits for queued games to be written
+    private static final long EXIT_FLUSH_MILLIS = 5000;
+
+    private static final ScoreLog log = new ScoreLog(new File(SCORE_FILE));
+    // Guarded by ScoreManager.class, like everything below
+    private static final List<ScoreEntry> scores = new ArrayList<>();
+    // Best MAX_SCORES_PER_DIFFICULTY games of each difficulty, kept up to date as games are added
+    private static final Map<DifficultySelect.Difficulty, TopScores> topScores =
+            new EnumMap<>(DifficultySelect.Difficulty.class);
+    // Best games of each difficulty per local day, keyed by epoch day
+    private static final TreeMap<Long, Map<DifficultySelect.Difficulty, TopScores>> dailyTopScores = new TreeMap<>();
+    private static final ZoneId zone = ZoneId.systemDefault();
+    // How many games of each difficulty ended with each score
+    private static final Map<DifficultySelect.Difficulty, ScoreHistogram> histograms =
+            new EnumMap<>(DifficultySelect.Difficulty.class);
+    // Order in which games were added; breaks ties between equal scores
+    private static long nextSequence;
+    // Games not on disk yet, oldest first
+    private static final List<ScoreEntry> pending = new ArrayList<>();
+    // The file must be rewritten (migrated, repaired) before anything is appended to it
+    private static boolean rewritePending;
+    // The writer is saving a batch right now
+    private static boolean writing;
+    // The last write failed; the writer tries again (with a full rewrite) when the next game comes in
+    private static boolean writeFailed;
+    // Set when an unreadable file could not be moved aside; games are then only kept in memory
+    private static boolean diskDisabled;
+
     static {
+        for (DifficultySelect.Difficulty difficulty : DifficultySelect.Difficulty.values()) {
+            topScores.put(difficulty, new TopScores(MAX_SCORES_PER_DIFFICULTY));
+            histograms.put(difficulty, new ScoreHistogram());
+        }
         loadScores();
+
+        Thread writer = new Thread(ScoreManager::runWriter, "score-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(EXIT_FLUSH_MILLIS), "score-flush"));
+    }
+
+    // Load the score history now, off the event thread, instead of at the first game over
+    public static void init() {
+        // The static initializer does the work
     }
     
     public static class ScoreEntry implements Serializable {
@@ -21,8 +80,12 @@ public class ScoreManager {
         private final DifficultySelect.Difficulty difficulty;
         
         public ScoreEntry(int score, DifficultySelect.Difficulty difficulty) {
+            this(score, new Date(), difficulty);
+        }
+
+        public ScoreEntry(int score, Date date, DifficultySelect.Difficulty difficulty) {
             this.score = score;
-            this.date = new Date();
+            this.date = date;
             this.difficulty = difficulty;
         }
         
@@ -39,64 +102,198 @@ public class ScoreManager {
         }
     }
     
-    public static void addScore(int score, DifficultySelect.Difficulty difficulty) {
-        scores.add(new ScoreEntry(score, difficulty));
-        saveScores();
+    /**
+     * Record a finished game and return its rank among the games of its
+     * difficulty (1 is the best; equal scores share a rank). Returns at once;
+     * the game is written to disk in the background.
+     */
+    public static synchronized int addScore(int score, DifficultySelect.Difficulty difficulty) {
+        ScoreEntry entry = new ScoreEntry(score, difficulty);
+        addToHistory(entry);
+        pending.add(entry);
+        writeFailed = false;
+        ScoreManager.class.notifyAll();
+        return getRank(score, difficulty);
     }
-    
-    public static List<ScoreEntry> getLeaderboard(DifficultySelect.Difficulty difficulty) {
-        List<ScoreEntry> filtered = new ArrayList<>();
-        
-        // Filter by difficulty and sort by score (descending)
-        for (ScoreEntry entry : scores) {
-            if (entry.getDifficulty() == difficulty) {
-                filtered.add(entry);
-            }
+
+    // Rank a score would have among the games of a difficulty played so far
+    public static synchronized int getRank(int score, DifficultySelect.Difficulty difficulty) {
+        return histograms.get(difficulty).countAbove(score) + 1;
+    }
+
+    // Games of a difficulty that scored more than score
+    public static synchronized int countAbove(int score, DifficultySelect.Difficulty difficulty) {
+        return histograms.get(difficulty).countAbove(score);
+    }
+
+    /**
+     * Share of the games of a difficulty that scored less than score, from 0
+     * to 100; 0 if there are none.
+     */
+    public static synchronized double getPercentile(int score, DifficultySelect.Difficulty difficulty) {
+        ScoreHistogram histogram = histograms.get(difficulty);
+        if (histogram.getTotal() == 0) {
+            return 0;
         }
-        
-        // Sort by score (highest first)
-        filtered.sort((a, b) -> Integer.compare(b.getScore(), a.getScore()));
-        
-        // Return top 10
-        if (filtered.isEmpty()) {
-            return new ArrayList<>();
+        return 100.0 * histogram.countBelow(score) / histogram.getTotal();
+    }
+
+    // Games played on a difficulty
+    public static synchronized int getGameCount(DifficultySelect.Difficulty difficulty) {
+        return histograms.get(difficulty).getTotal();
+    }
+
+    /**
+     * Wait up to timeoutMillis until every submitted game is on disk. Returns
+     * false if some are still queued.
+     */
+    public static synchronized boolean flush(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while ((!pending.isEmpty() || rewritePending || writing) && !writeFailed && !diskDisabled) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            try {
+                ScoreManager.class.wait(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
         }
-        int size = Math.min(filtered.size(), MAX_SCORES_PER_DIFFICULTY);
-        return new ArrayList<>(filtered.subList(0, size));
+        return pending.isEmpty() && !rewritePending && !writing;
     }
     
-    public static List<ScoreEntry> getAllScores() {
-        // Get all scores sorted by score (descending)
-        List<ScoreEntry> allScores = new ArrayList<>(scores);
-        allScores.sort((a, b) -> Integer.compare(b.getScore(), a.getScore()));
+    // Best games of a difficulty, highest score first
+    public static synchronized List<ScoreEntry> getLeaderboard(DifficultySelect.Difficulty difficulty) {
+        return topScores.get(difficulty).toSortedList();
+    }
 
-        // Return top 10 overall
-        if (allScores.isEmpty()) {
+    // Best games of all difficulties, highest score first
+    public static synchronized List<ScoreEntry> getAllScores() {
+        return TopScores.merge(new ArrayList<>(topScores.values()), MAX_SCORES_PER_DIFFICULTY);
+    }
+
+    /**
+     * Best games played from one local date to another (both included),
+     * highest score first; difficulty null for all difficulties.
+     */
+    public static synchronized List<ScoreEntry> getLeaderboard(DifficultySelect.Difficulty difficulty,
+                                                               LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
             return new ArrayList<>();
         }
-        int size = Math.min(allScores.size(), MAX_SCORES_PER_DIFFICULTY);
-        return new ArrayList<>(allScores.subList(0, size));
+        List<TopScores> days = new ArrayList<>();
+        for (Map<DifficultySelect.Difficulty, TopScores> day
+                : dailyTopScores.subMap(from.toEpochDay(), true, to.toEpochDay(), true).values()) {
+            if (difficulty == null) {
+                days.addAll(day.values());
+            } else if (day.containsKey(difficulty)) {
+                days.add(day.get(difficulty));
+            }
+        }
+        return TopScores.merge(days, MAX_SCORES_PER_DIFFICULTY);
+    }
+
+    private static void addToHistory(ScoreEntry entry) {
+        long sequence = nextSequence++;
+        scores.add(entry);
+        topScores.get(entry.getDifficulty()).add(entry, sequence);
+        histograms.get(entry.getDifficulty()).add(entry.getScore());
+
+        long day = entry.getDate().toInstant().atZone(zone).toLocalDate().toEpochDay();
+        dailyTopScores.computeIfAbsent(day, d -> new EnumMap<>(DifficultySelect.Difficulty.class))
+                .computeIfAbsent(entry.getDifficulty(), d -> new TopScores(MAX_SCORES_PER_DIFFICULTY))
+                .add(entry, sequence);
     }
 
-    @SuppressWarnings("unchecked")
-    private static void loadScores() {
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(SCORE_FILE))) {
-            scores = (List<ScoreEntry>) ois.readObject();
-        } catch (FileNotFoundException e) {
-            // File doesn't exist yet, start with empty list
-            scores = new ArrayList<>();
-        } catch (IOException | ClassNotFoundException e) {
+    private static synchronized void loadScores() {
+        File file = log.getFile();
+        if (!file.exists()) {
+            // No games played yet
+            return;
+        }
+        try {
+            List<ScoreEntry> loaded;
+            if (log.isLegacy()) {
+                loaded = log.readLegacy();
+                rewritePending = true;
+            } else {
+                loaded = log.read();
+                if (log.getDamagedRecords() > 0) {
+                    System.err.println("Skipped " + log.getDamagedRecords() + " damaged score records");
+                    rewritePending = true;
+                }
+            }
+            for (ScoreEntry entry : loaded) {
+                addToHistory(entry);
+            }
+        } catch (IOException e) {
+            // Start a new history, but keep the old file for whoever wants to rescue it
             System.err.println("Error loading scores: " + e.getMessage());
-            scores = new ArrayList<>();
+            File aside = new File(file.getPath() + ".unreadable-" + System.currentTimeMillis());
+            if (file.renameTo(aside)) {
+                System.err.println("Kept the unreadable score file as " + aside);
+            } else {
+                System.err.println("Could not move the unreadable score file aside; scores will not be saved");
+                diskDisabled = true;
+            }
         }
     }
-    
-    private static void saveScores() {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(SCORE_FILE))) {
-            oos.writeObject(scores);
-        } catch (IOException e) {
-            System.err.println("Error saving scores: " + e.getMessage());
+
+    /**
+     * The single writer: rewrites the file if needed, then appends queued games in batches.
+     *
+     * A healthy log needs no compaction. Every record is a game the
+     * leaderboards still count, nothing is ever updated or deleted, and
+     * records are fixed width with no per-batch framing, so a rewrite would
+     * produce the same bytes. Only damaged records and torn tails are dead
+     * space. Loading finds those, and so does a failed append; both set
+     * rewritePending.
+     */
+    private static void runWriter() {
+        List<ScoreEntry> batch = new ArrayList<>();
+        while (true) {
+            boolean rewrite;
+            synchronized (ScoreManager.class) {
+                while ((pending.isEmpty() && !rewritePending) || writeFailed || diskDisabled) {
+                    try {
+                        ScoreManager.class.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                rewrite = rewritePending;
+                // A rewrite saves the whole history, queued games included
+                batch.addAll(rewrite ? scores : pending);
+                pending.clear();
+                rewritePending = false;
+                writing = true;
+            }
+
+            boolean failed = false;
+            try {
+                if (rewrite) {
+                    log.rewrite(batch);
+                } else {
+                    log.append(batch);
+                }
+            } catch (IOException e) {
+                System.err.println("Error saving scores: " + e.getMessage());
+                failed = true;
+            }
+
+            synchronized (ScoreManager.class) {
+                if (failed) {
+                    // A failed append may have left a torn record, so the retry rewrites the
+                    // whole file; a failed rewrite never touched it
+                    rewritePending = true;
+                    writeFailed = true;
+                }
+                writing = false;
+                ScoreManager.class.notifyAll();
+            }
+            batch.clear();
         }
     }
 }
-
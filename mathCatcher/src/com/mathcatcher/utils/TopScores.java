@@ -0,0 +1,159 @@
+package com.mathcatcher.utils;
+
+import com.mathcatcher.utils.ScoreManager.ScoreEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The best scores seen so far, up to a fixed capacity.
+ *
+ * Kept as a min-heap with the worst kept score at the root, so an insert is
+ * O(log K) (and O(1) for the usual score that does not make the cut), and a
+ * read is a sort of K entries whatever the size of the history. Equal scores
+ * rank by sequence number, earliest first, which matches the order a stable
+ * sort of the full history used to give.
+ *
+ * Not thread-safe; ScoreManager serializes access.
+ */
+public class TopScores {
+    private final ScoreEntry[] entries;
+    private final long[] sequences;
+    private int size;
+
+    public TopScores(int capacity) {
+        entries = new ScoreEntry[capacity];
+        sequences = new long[capacity];
+    }
+
+    // Offer an entry; sequence orders equal scores (lower is earlier)
+    public void add(ScoreEntry entry, long sequence) {
+        if (size < entries.length) {
+            entries[size] = entry;
+            sequences[size] = sequence;
+            siftUp(size++);
+        } else if (size > 0 && isBetter(entry.getScore(), sequence, 0)) {
+            // Replace the worst one
+            entries[0] = entry;
+            sequences[0] = sequence;
+            siftDown(0);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            entries[i] = null;
+        }
+        size = 0;
+    }
+
+    // The kept entries, best first
+    public List<ScoreEntry> toSortedList() {
+        int[] order = sortedOrder();
+        List<ScoreEntry> sorted = new ArrayList<>(size);
+        for (int index : order) {
+            sorted.add(entries[index]);
+        }
+        return sorted;
+    }
+
+    /**
+     * The best limit entries of several TopScores together, best first: a
+     * k-way merge of their sorted contents.
+     */
+    public static List<ScoreEntry> merge(List<TopScores> sources, int limit) {
+        int k = sources.size();
+        int[][] orders = new int[k][];
+        int[] heads = new int[k];
+        for (int i = 0; i < k; i++) {
+            orders[i] = sources.get(i).sortedOrder();
+        }
+
+        List<ScoreEntry> merged = new ArrayList<>(limit);
+        while (merged.size() < limit) {
+            // limit is small, so scanning the heads once per pick is cheap even over a year of days
+            int best = -1;
+            for (int i = 0; i < k; i++) {
+                if (heads[i] < orders[i].length && (best < 0 || ranksAbove(
+                        sources.get(i), orders[i][heads[i]], sources.get(best), orders[best][heads[best]]))) {
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            merged.add(sources.get(best).entries[orders[best][heads[best]++]]);
+        }
+        return merged;
+    }
+
+    // Heap indexes, best entry first
+    private int[] sortedOrder() {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            // Insertion sort: size is small
+            int j = i;
+            while (j > 0 && isBetter(entries[i].getScore(), sequences[i], order[j - 1])) {
+                order[j] = order[j - 1];
+                j--;
+            }
+            order[j] = i;
+        }
+        return order;
+    }
+
+    // True if a's entry at index ranks above b's entry at otherIndex
+    private static boolean ranksAbove(TopScores a, int index, TopScores b, int otherIndex) {
+        return b.isBetter(a.entries[index].getScore(), a.sequences[index], otherIndex);
+    }
+
+    // True if (score, sequence) ranks above the entry at index
+    private boolean isBetter(int score, long sequence, int index) {
+        int other = entries[index].getScore();
+        return score > other || (score == other && sequence < sequences[index]);
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            // The root holds the worst entry
+            if (!isBetter(entries[parent].getScore(), sequences[parent], index)) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int worst = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && isBetter(entries[worst].getScore(), sequences[worst], left)) {
+                worst = left;
+            }
+            if (right < size && isBetter(entries[worst].getScore(), sequences[worst], right)) {
+                worst = right;
+            }
+            if (worst == index) {
+                return;
+            }
+            swap(index, worst);
+            index = worst;
+        }
+    }
+
+    private void swap(int a, int b) {
+        ScoreEntry entry = entries[a];
+        entries[a] = entries[b];
+        entries[b] = entry;
+        long sequence = sequences[a];
+        sequences[a] = sequences[b];
+        sequences[b] = sequence;
+    }
+}
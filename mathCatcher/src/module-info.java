@@ -6,4 +6,5 @@
  */
 module mathCatcher {
     requires java.desktop;
+    requires java.management;
 }
\ No newline at end of file
@@ -0,0 +1,182 @@
+package com.mathcatcher.game;
+
+import com.mathcatcher.entities.FallingNumberStore;
+import com.mathcatcher.utils.Collision;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Checks that GameSimulation catches and misses exactly the numbers a brute
+ * force pass finds: every number tested against the catcher with plain
+ * Collision.intersects at sub-steps along the tick, instead of the column
+ * broad phase and sweptIntersects.
+ *
+ * Seeded games with random input and extra numbers dropped in at random
+ * heights, at the default and a low tick rate (long steps, where a number can
+ * jump over the catcher). After every tick the survivors must be exactly the
+ * numbers that were neither caught nor fell off screen, and the store's
+ * column buckets must still list every number once, in its own column.
+ */
+public class GameSimulationCheck {
+    private static final int GAMES = 400;
+    private static final int[] TICK_RATES = {GameLoop.TICKS_PER_SECOND, 20};
+    private static final int[][] SIZES = {{800, 600}, {1067, 600}};
+
+    private static int caught;
+    private static int tunnelled; // caught, though the boxes overlap at neither end of the tick
+    private static int nearMisses; // paths met, but the boxes never overlapped
+
+    public static void main(String[] args) {
+        DifficultySelect.Difficulty[] difficulties = DifficultySelect.Difficulty.values();
+        int ticks = 0;
+        for (int game = 0; game < GAMES; game++) {
+            int[] size = SIZES[game % SIZES.length];
+            GameSimulation sim = new GameSimulation(difficulties[game % difficulties.length], size[0], size[1],
+                    new Random(game), TICK_RATES[(game / SIZES.length) % TICK_RATES.length]);
+            ticks += play(sim, new Random(1000 + game), "game " + game);
+        }
+        check(caught > 1000 && tunnelled > 0 && nearMisses > 0, "too few close calls: " + caught + " caught, "
+                + tunnelled + " between ticks, " + nearMisses + " near misses");
+        System.out.println("GameSimulationCheck passed: " + ticks + " ticks, " + caught + " caught ("
+                + tunnelled + " between ticks), " + nearMisses + " near misses");
+    }
+
+    // Play until game over, checking every tick; returns the ticks played
+    private static int play(GameSimulation sim, Random input, String what) {
+        int[] catches = new int[1];
+        sim.setEventListener(event -> {
+            if (event == GameSimulation.Event.CATCH) {
+                catches[0]++;
+            }
+        });
+        FallingNumberStore numbers = sim.getNumbers();
+        int ticks = 0;
+        while (!sim.isGameOver()) {
+            if (ticks % 20 == 0) {
+                int keys = input.nextInt(3);
+                sim.setInput(keys == 1, keys == 2);
+            }
+            // Crowd the screen, mostly with right answers so games last and levels (and speeds) go up
+            if (input.nextInt(3) == 0) {
+                int value = input.nextInt(4) == 0 ? input.nextInt(60) : sim.getCurrentEquation().getAnswer();
+                sim.spawnNumber(input.nextInt(sim.getWidth() - GameSimulation.NUMBER_SIZE),
+                        input.nextInt(sim.getHeight()), value);
+            }
+
+            // Where every number will be after the tick, and what it is
+            int before = numbers.size();
+            Map<String, Integer> expected = new HashMap<>();
+            int[] x = new int[before];
+            double[] y = new double[before];
+            double[] nextY = new double[before];
+            int[] values = new int[before];
+            for (int i = 0; i < before; i++) {
+                x[i] = numbers.getX(i);
+                y[i] = numbers.getY(i);
+                nextY[i] = y[i] + numbers.getVelocity(i);
+                values[i] = numbers.getValue(i);
+            }
+
+            catches[0] = 0;
+            sim.tick();
+            ticks++;
+            if (sim.isGameOver()) {
+                // The tick may have stopped half way; nothing left to compare
+                break;
+            }
+
+            int px0 = (int) sim.getPlayerX(0);
+            int px1 = (int) sim.getPlayerX(1);
+            int py = (int) sim.getPlayerY();
+            int expectedCatches = 0;
+            for (int i = 0; i < before; i++) {
+                boolean hit = bruteForceHit(x[i], (int) y[i], (int) nextY[i], px0, px1, py);
+                if (hit) {
+                    expectedCatches++;
+                    caught++;
+                } else if (nextY[i] <= sim.getHeight()) {
+                    expected.merge(key(x[i], nextY[i], values[i]), 1, Integer::sum);
+                }
+            }
+            check(catches[0] == expectedCatches,
+                    what + " tick " + ticks + ": caught " + catches[0] + ", brute force " + expectedCatches);
+
+            // What is left is the survivors, plus at most one number the spawner added
+            int spawned = 0;
+            for (int i = 0; i < numbers.size(); i++) {
+                String key = key(numbers.getX(i), numbers.getY(i), numbers.getValue(i));
+                Integer count = expected.get(key);
+                if (count == null) {
+                    spawned++;
+                } else if (count == 1) {
+                    expected.remove(key);
+                } else {
+                    expected.put(key, count - 1);
+                }
+            }
+            check(expected.isEmpty(), what + " tick " + ticks + ": numbers lost " + expected.keySet());
+            check(spawned <= 1, what + " tick " + ticks + ": " + spawned + " unexpected numbers");
+            checkBuckets(numbers, what + " tick " + ticks);
+        }
+        return ticks;
+    }
+
+    /**
+     * Sample the tick at t = k / steps. Coordinates are scaled by steps so every
+     * sample lands on whole numbers. An overlap that exists lasts at least
+     * 1 / (|dx| * |dy|) of the tick, so steps above that product cannot miss it.
+     */
+    private static boolean bruteForceHit(int nx, int ny0, int ny1, int px0, int px1, int py) {
+        int size = GameSimulation.NUMBER_SIZE;
+        int width = GameSimulation.PLAYER_WIDTH;
+        int height = GameSimulation.PLAYER_HEIGHT;
+        // Cheap reject: the boxes covering each whole path do not even meet
+        if (!Collision.intersects(nx, Math.min(ny0, ny1), size, Math.abs(ny1 - ny0) + size,
+                Math.min(px0, px1), py, Math.abs(px1 - px0) + width, height)) {
+            return false;
+        }
+        int dx = px1 - px0;
+        int dy = ny1 - ny0;
+        int steps = 2 * (Math.abs(dx) + 1) * (Math.abs(dy) + 1);
+        for (int k = 0; k <= steps; k++) {
+            if (Collision.intersects(nx * steps, ny0 * steps + dy * k, size * steps, size * steps,
+                    px0 * steps + dx * k, py * steps, width * steps, height * steps)) {
+                if (!Collision.intersects(nx, ny0, size, size, px0, py, width, height)
+                        && !Collision.intersects(nx, ny1, size, size, px1, py, width, height)) {
+                    tunnelled++;
+                }
+                return true;
+            }
+        }
+        nearMisses++;
+        return false;
+    }
+
+    // Every number is in exactly one bucket, the one for its x
+    private static void checkBuckets(FallingNumberStore numbers, String what) {
+        int[] seen = new int[numbers.size()];
+        for (int c = 0; c < numbers.getColumnCount(); c++) {
+            for (int n = 0; n < numbers.getColumnSize(c); n++) {
+                int i = numbers.getColumnEntity(c, n);
+                check(i >= 0 && i < numbers.size(), what + ": bucket " + c + " holds stale index " + i);
+                check(numbers.columnOf(numbers.getX(i)) == c, what + ": number " + i + " in the wrong bucket");
+                seen[i]++;
+            }
+        }
+        for (int i = 0; i < seen.length; i++) {
+            check(seen[i] == 1, what + ": number " + i + " is in " + seen[i] + " buckets");
+        }
+    }
+
+    private static String key(int x, double y, int value) {
+        return x + "," + y + "," + value;
+    }
+
+    private static void check(boolean ok, String what) {
+        if (!ok) {
+            throw new AssertionError(what);
+        }
+    }
+}
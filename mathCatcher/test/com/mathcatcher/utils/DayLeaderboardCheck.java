@@ -0,0 +1,86 @@
+package com.mathcatcher.utils;
+
+import com.mathcatcher.game.DifficultySelect;
+import com.mathcatcher.utils.ScoreManager.ScoreEntry;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks ScoreManager's date-range leaderboards, which merge per-day top 10s,
+ * against filtering and sorting the whole history: 300 random ranges over
+ * two months of games, with and without a difficulty.
+ */
+public class DayLeaderboardCheck {
+    private static final int GAMES = 5000;
+    private static final int DAYS = 60;
+    private static final int ROUNDS = 300;
+    private static final int LIMIT = 10;
+    private static final DifficultySelect.Difficulty[] DIFFICULTIES = DifficultySelect.Difficulty.values();
+
+    public static void main(String[] args) throws IOException {
+        Random rand = new Random(25);
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate first = LocalDate.of(2026, 3, 1);
+        long firstMillis = first.atStartOfDay(zone).toInstant().toEpochMilli();
+
+        List<ScoreEntry> history = new ArrayList<>(GAMES);
+        for (int i = 0; i < GAMES; i++) {
+            long millis = firstMillis + (long) (rand.nextDouble() * DAYS * 86_400_000L);
+            history.add(new ScoreEntry(rand.nextInt(50) * 10, new Date(millis),
+                    DIFFICULTIES[rand.nextInt(DIFFICULTIES.length)]));
+        }
+
+        // ScoreManager loads its file once, at first use
+        File file = File.createTempFile("mathcatcher-check-scores", ".dat");
+        file.deleteOnExit();
+        new ScoreLog(file).rewrite(history);
+        System.setProperty("mathcatcher.scoreFile", file.getAbsolutePath());
+
+        for (int round = 0; round < ROUNDS; round++) {
+            // Ranges may start before the history, end after it, or be empty
+            LocalDate from = first.plusDays(rand.nextInt(DAYS + 10) - 5);
+            LocalDate to = rand.nextInt(10) == 0 ? from.minusDays(1) : from.plusDays(rand.nextInt(10));
+            DifficultySelect.Difficulty difficulty = rand.nextBoolean() ? null : DIFFICULTIES[rand.nextInt(DIFFICULTIES.length)];
+
+            List<ScoreEntry> expected = new ArrayList<>();
+            for (ScoreEntry entry : history) {
+                LocalDate day = entry.getDate().toInstant().atZone(zone).toLocalDate();
+                if ((difficulty == null || entry.getDifficulty() == difficulty)
+                        && !day.isBefore(from) && !day.isAfter(to)) {
+                    expected.add(entry);
+                }
+            }
+            // Stable, so equal scores keep the earlier game first
+            expected.sort(Comparator.comparingInt(ScoreEntry::getScore).reversed());
+            expected = expected.subList(0, Math.min(LIMIT, expected.size()));
+
+            checkSame(expected, ScoreManager.getLeaderboard(difficulty, from, to),
+                    "round " + round + " " + difficulty + " " + from + ".." + to);
+        }
+        System.out.println("DayLeaderboardCheck passed");
+    }
+
+    private static void checkSame(List<ScoreEntry> expected, List<ScoreEntry> actual, String what) {
+        check(expected.size() == actual.size(), what + ": " + actual.size() + " entries, expected " + expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            ScoreEntry a = expected.get(i);
+            ScoreEntry b = actual.get(i);
+            check(a.getScore() == b.getScore() && a.getDate().equals(b.getDate())
+                    && a.getDifficulty() == b.getDifficulty(), what + ": entry " + i + " differs");
+        }
+    }
+
+    private static void check(boolean ok, String what) {
+        if (!ok) {
+            throw new AssertionError(what);
+        }
+    }
+}
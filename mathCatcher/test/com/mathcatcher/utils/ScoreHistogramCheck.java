@@ -0,0 +1,82 @@
+package com.mathcatcher.utils;
+
+import java.util.Random;
+
+/**
+ * Checks ScoreHistogram's counts, which back rank and percentile, against
+ * counting a plain array of scores. Scores past EXACT_SCORES are compared
+ * by their bucket, since the histogram ties them within one.
+ */
+public class ScoreHistogramCheck {
+    private static final int ROUNDS = 300;
+    private static final int[] EDGE_SCORES = {Integer.MIN_VALUE, -1, 0, Integer.MAX_VALUE};
+
+    public static void main(String[] args) {
+        Random rand = new Random(24);
+        for (int round = 0; round < ROUNDS; round++) {
+            ScoreHistogram histogram = new ScoreHistogram();
+            int[] scores = new int[rand.nextInt(200)];
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] = randomScore(rand);
+                histogram.add(scores[i]);
+            }
+            check(histogram.getTotal() == scores.length, "round " + round + " total");
+
+            for (int q = 0; q < 50; q++) {
+                int score = q < EDGE_SCORES.length ? EDGE_SCORES[q]
+                        : q % 2 == 0 && scores.length > 0 ? scores[rand.nextInt(scores.length)] : randomScore(rand);
+                int below = 0;
+                int above = 0;
+                for (int s : scores) {
+                    // Games are stored clamped to 0, so every game is above a negative score
+                    if (score < 0) {
+                        above++;
+                    } else if (slot(s) < slot(score)) {
+                        below++;
+                    } else if (slot(s) > slot(score)) {
+                        above++;
+                    }
+                }
+                String what = "round " + round + " score " + score;
+                check(histogram.countBelow(score) == below, what + " below");
+                check(histogram.countAbove(score) == above, what + " above");
+                check(histogram.countAtMost(score) == scores.length - above, what + " at most");
+            }
+        }
+
+        // A single huge score must not blow up the tree
+        ScoreHistogram histogram = new ScoreHistogram();
+        histogram.add(ScoreHistogram.MAX_SCORE);
+        histogram.add(Integer.MAX_VALUE);
+        histogram.add(Integer.MIN_VALUE);
+        check(histogram.countAbove(0) == 2 && histogram.countBelow(Integer.MAX_VALUE) == 1, "clamped extremes");
+        System.out.println("ScoreHistogramCheck passed");
+    }
+
+    // Mostly scores a game can reach, some past the exact range, some out of range
+    private static int randomScore(Random rand) {
+        switch (rand.nextInt(10)) {
+            case 0:
+                return ScoreHistogram.EXACT_SCORES - 5 + rand.nextInt(10 * ScoreHistogram.BUCKET_SIZE);
+            case 1:
+                return rand.nextInt();
+            default:
+                return rand.nextInt(300) * 10;
+        }
+    }
+
+    // Where the histogram files a score: clamped, then exact or in a BUCKET_SIZE wide bucket
+    private static int slot(int score) {
+        int clamped = Math.max(0, Math.min(score, ScoreHistogram.MAX_SCORE));
+        if (clamped < ScoreHistogram.EXACT_SCORES) {
+            return clamped;
+        }
+        return ScoreHistogram.EXACT_SCORES + (clamped - ScoreHistogram.EXACT_SCORES) / ScoreHistogram.BUCKET_SIZE;
+    }
+
+    private static void check(boolean ok, String what) {
+        if (!ok) {
+            throw new AssertionError(what);
+        }
+    }
+}
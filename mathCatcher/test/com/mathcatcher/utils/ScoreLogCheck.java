@@ -0,0 +1,141 @@
+package com.mathcatcher.utils;
+
+import com.mathcatcher.game.DifficultySelect;
+import com.mathcatcher.utils.ScoreManager.ScoreEntry;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks the score log format and the background writer: records survive a
+ * rewrite and an append, a torn tail or a damaged record costs only that
+ * record, and a serialized scores.dat from an older version is migrated.
+ */
+public class ScoreLogCheck {
+    private static final DifficultySelect.Difficulty[] DIFFICULTIES = DifficultySelect.Difficulty.values();
+
+    public static void main(String[] args) throws Exception {
+        Random rand = new Random(7);
+        roundTrip(rand);
+        tornTail(rand);
+        damagedRecord(rand);
+        legacyMigration(rand);
+        System.out.println("ScoreLogCheck passed");
+    }
+
+    // Rewrite then append, and read back exactly what was written
+    private static void roundTrip(Random rand) throws IOException {
+        ScoreLog log = new ScoreLog(tempFile());
+        List<ScoreEntry> written = randomEntries(rand, 100);
+        log.rewrite(written);
+        List<ScoreEntry> more = randomEntries(rand, 5);
+        log.append(more);
+        written.addAll(more);
+
+        check(log.getFile().length() == 8 + written.size() * ScoreLog.RECORD_SIZE, "file size after append");
+        checkSame(written, log.read(), "round trip");
+        check(log.getDamagedRecords() == 0, "no damaged records after a clean write");
+
+        // Appending to an empty file writes the header first
+        ScoreLog fresh = new ScoreLog(tempFile());
+        fresh.append(more);
+        checkSame(more, fresh.read(), "append to an empty file");
+    }
+
+    // A crash in the middle of an append leaves part of a record, which is dropped
+    private static void tornTail(Random rand) throws IOException {
+        ScoreLog log = new ScoreLog(tempFile());
+        List<ScoreEntry> written = randomEntries(rand, 20);
+        log.rewrite(written);
+        try (RandomAccessFile file = new RandomAccessFile(log.getFile(), "rw")) {
+            file.setLength(file.length() - 7);
+        }
+
+        List<ScoreEntry> read = log.read();
+        checkSame(written.subList(0, 19), read, "torn tail");
+        check(log.getDamagedRecords() == 1, "torn tail counts as one damaged record");
+
+        log.rewrite(read);
+        checkSame(written.subList(0, 19), log.read(), "repaired log");
+        check(log.getDamagedRecords() == 0, "repaired log is clean");
+    }
+
+    // A flipped bit fails the checksum of its own record only
+    private static void damagedRecord(Random rand) throws IOException {
+        ScoreLog log = new ScoreLog(tempFile());
+        List<ScoreEntry> written = randomEntries(rand, 20);
+        log.rewrite(written);
+        try (RandomAccessFile file = new RandomAccessFile(log.getFile(), "rw")) {
+            long offset = 8 + 10L * ScoreLog.RECORD_SIZE + 5;
+            file.seek(offset);
+            int b = file.read();
+            file.seek(offset);
+            file.write(b ^ 0x10);
+        }
+
+        List<ScoreEntry> expected = new ArrayList<>(written);
+        expected.remove(10);
+        checkSame(expected, log.read(), "damaged record");
+        check(log.getDamagedRecords() == 1, "one damaged record");
+    }
+
+    // An older version's serialized list is read, and ScoreManager rewrites it as a log
+    private static void legacyMigration(Random rand) throws IOException {
+        File file = tempFile();
+        ArrayList<ScoreEntry> written = randomEntries(rand, 30);
+        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file))) {
+            out.writeObject(written);
+        }
+
+        ScoreLog log = new ScoreLog(file);
+        check(log.isLegacy(), "serialized file is legacy");
+        checkSame(written, log.readLegacy(), "legacy read");
+
+        // ScoreManager loads its file once, at first use
+        System.setProperty("mathcatcher.scoreFile", file.getAbsolutePath());
+        check(ScoreManager.getGameCount(DifficultySelect.Difficulty.EASY)
+                + ScoreManager.getGameCount(DifficultySelect.Difficulty.MEDIUM)
+                + ScoreManager.getGameCount(DifficultySelect.Difficulty.HARD) == written.size(), "legacy games loaded");
+        check(ScoreManager.flush(5000), "migration written");
+
+        check(!log.isLegacy(), "migrated file is a log");
+        checkSame(written, log.read(), "migrated log");
+        check(log.getDamagedRecords() == 0, "migrated log is clean");
+    }
+
+    private static ArrayList<ScoreEntry> randomEntries(Random rand, int count) {
+        ArrayList<ScoreEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entries.add(new ScoreEntry(rand.nextInt(2000) - 10,
+                    new Date(1_700_000_000_000L + rand.nextInt(1_000_000_000)),
+                    DIFFICULTIES[rand.nextInt(DIFFICULTIES.length)]));
+        }
+        return entries;
+    }
+
+    private static File tempFile() throws IOException {
+        File file = File.createTempFile("mathcatcher-check-scores", ".dat");
+        file.deleteOnExit();
+        new File(file.getPath() + ".tmp").deleteOnExit();
+        return file;
+    }
+
+    private static void checkSame(List<ScoreEntry> expected, List<ScoreEntry> actual, String what) {
+        check(expected.size() == actual.size(), what + ": " + actual.size() + " entries, expected " + expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            ScoreEntry a = expected.get(i);
+            ScoreEntry b = actual.get(i);
+            check(a.getScore() == b.getScore() && a.getDate().equals(b.getDate())
+                    && a.getDifficulty() == b.getDifficulty(), what + ": entry " + i + " differs");
+        }
+    }
+
+    private static void check(boolean ok, String what) {
+        if (!ok) {
+            throw new AssertionError(what);
+        }
+    }
+}
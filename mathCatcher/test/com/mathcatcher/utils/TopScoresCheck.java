@@ -0,0 +1,73 @@
+package com.mathcatcher.utils;
+
+import com.mathcatcher.game.DifficultySelect;
+import com.mathcatcher.utils.ScoreManager.ScoreEntry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks TopScores and TopScores.merge against sorting everything: random
+ * histories with many equal scores, where ties must keep the earlier game
+ * first, as the stable sort of the full history did.
+ */
+public class TopScoresCheck {
+    private static final int ROUNDS = 300;
+
+    public static void main(String[] args) {
+        Random rand = new Random(23);
+        for (int round = 0; round < ROUNDS; round++) {
+            int capacity = 1 + rand.nextInt(12);
+            int sourceCount = rand.nextInt(6);
+            // Each source only keeps its own best capacity, so a merge can return at most that many
+            int limit = rand.nextInt(capacity + 1);
+
+            List<TopScores> sources = new ArrayList<>();
+            List<List<ScoreEntry>> histories = new ArrayList<>();
+            List<ScoreEntry> everything = new ArrayList<>();
+            long sequence = 0;
+            for (int s = 0; s < sourceCount; s++) {
+                sources.add(new TopScores(capacity));
+                histories.add(new ArrayList<>());
+            }
+            // Interleave the sources, so sequence order crosses between them
+            int games = sourceCount == 0 ? 0 : rand.nextInt(60);
+            for (int i = 0; i < games; i++) {
+                int s = rand.nextInt(sourceCount);
+                ScoreEntry entry = new ScoreEntry(rand.nextInt(8) * 10, DifficultySelect.Difficulty.EASY);
+                sources.get(s).add(entry, sequence++);
+                histories.get(s).add(entry);
+                everything.add(entry);
+            }
+
+            for (int s = 0; s < sourceCount; s++) {
+                checkSame(best(histories.get(s), capacity), sources.get(s).toSortedList(),
+                        "round " + round + " source " + s);
+            }
+            checkSame(best(everything, limit), TopScores.merge(sources, limit), "round " + round + " merge");
+        }
+        System.out.println("TopScoresCheck passed");
+    }
+
+    // The first limit entries of a stable sort by score, highest first
+    private static List<ScoreEntry> best(List<ScoreEntry> history, int limit) {
+        List<ScoreEntry> sorted = new ArrayList<>(history);
+        sorted.sort(Comparator.comparingInt(ScoreEntry::getScore).reversed());
+        return sorted.subList(0, Math.min(limit, sorted.size()));
+    }
+
+    private static void checkSame(List<ScoreEntry> expected, List<ScoreEntry> actual, String what) {
+        check(expected.size() == actual.size(), what + ": " + actual.size() + " entries, expected " + expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            check(expected.get(i) == actual.get(i), what + ": entry " + i + " differs");
+        }
+    }
+
+    private static void check(boolean ok, String what) {
+        if (!ok) {
+            throw new AssertionError(what);
+        }
+    }
+}